@@ -0,0 +1,53 @@
+#!/bin/bash
+
+#db_url="jdbc:postgresql://localhost:26257/training_modules?sslmode=disable"
+#db_user=root
+#db_password=cockroach
+
+threads="1,8,32"
+
+####################################
+# Do not edit past this line
+####################################
+
+PS3='Please select benchmark: '
+
+unset options i
+while IFS= read -r -d $'\0' f; do
+  options[i++]="$f"
+done < <(find src/main/java -name '*Benchmark.java' -print0 )
+
+select opt in "${options[@]}" "All" "Quit"; do
+  case $opt in
+    *.java)
+      echo "Benchmark class $opt selected"
+      include=$(echo $opt --| awk -F'/' '{print $NF}' | sed 's/\.[^.]*$//')
+      break
+      ;;
+    "All")
+      include=".*"
+      break
+      ;;
+    "Quit")
+      exit 0
+      ;;
+    *)
+      echo "Try again!"
+      ;;
+  esac
+done
+
+if [ -n "$db_url" ]; then
+../mvnw -pl benchmarks -am -DskipTests install -f ../pom.xml && \
+../mvnw exec:exec \
+  -Dbenchmark.include="${include}" \
+  -Dbenchmark.threads="${threads}" \
+  -Dbenchmark.datasource.url="${db_url}" \
+  -Dbenchmark.datasource.username=${db_user} \
+  -Dbenchmark.datasource.password=${db_password}
+else
+../mvnw -pl benchmarks -am -DskipTests install -f ../pom.xml && \
+../mvnw exec:exec \
+  -Dbenchmark.include="${include}" \
+  -Dbenchmark.threads="${threads}"
+fi
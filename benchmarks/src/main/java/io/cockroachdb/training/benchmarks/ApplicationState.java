@@ -0,0 +1,158 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.cockroachdb.training.Chapter3Application;
+import io.cockroachdb.training.domain.model.Address;
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.Product;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.repository.CustomerRepository;
+import io.cockroachdb.training.domain.repository.OrderRepository;
+import io.cockroachdb.training.domain.repository.ProductRepository;
+import io.cockroachdb.training.domain.util.RandomData;
+
+/**
+ * Shared benchmark state holding a chapter 3 application context with a connection
+ * pool of the parameterized size, and an in-memory catalog of customers and products
+ * to build purchase orders from.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    // High enough to never trip the positive inventory check constraint
+    private static final int INVENTORY_QUANTITY = Integer.MAX_VALUE / 2;
+
+    @Param({"16", "32", "64"})
+    public int poolSize;
+
+    @Param({"100"})
+    public int numCustomers;
+
+    @Param({"500"})
+    public int numProducts;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<Customer> customers;
+
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        this.applicationContext = new SpringApplicationBuilder(Chapter3Application.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("spring.datasource.hikari.maximum-pool-size=" + poolSize)
+                .run();
+
+        this.transactionTemplate = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            OrderRepository orderRepository = getBean(OrderRepository.class);
+            orderRepository.deleteAllOrderItems();
+            orderRepository.deleteAllInBatch();
+            getBean(ProductRepository.class).deleteAllInBatch();
+            getBean(CustomerRepository.class).deleteAllInBatch();
+        });
+
+        this.customers = transactionTemplate.execute(transactionStatus ->
+                getBean(CustomerRepository.class).saveAll(IntStream.rangeClosed(1, numCustomers)
+                        .mapToObj(value -> newCustomer())
+                        .toList()));
+
+        this.products = transactionTemplate.execute(transactionStatus ->
+                getBean(ProductRepository.class).saveAll(IntStream.rangeClosed(1, numProducts)
+                        .mapToObj(value -> newProduct())
+                        .toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (applicationContext != null) {
+            applicationContext.close();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return applicationContext.getBean(type);
+    }
+
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public PurchaseOrder newPurchaseOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Customer customer = customers.get(random.nextInt(customers.size()));
+        Product product = products.get(random.nextInt(products.size()));
+
+        return PurchaseOrder.builder()
+                .withCustomer(customer)
+                .andOrderItem()
+                .withProductId(product.getId())
+                .withProductSku(product.getSku())
+                .withUnitPrice(product.getPrice())
+                .withQuantity(1)
+                .then()
+                .build();
+    }
+
+    public List<PurchaseOrder> newPurchaseOrders(int count) {
+        List<PurchaseOrder> orders = new ArrayList<>(count);
+        IntStream.range(0, count).forEach(value -> orders.add(newPurchaseOrder()));
+        return orders;
+    }
+
+    private static Customer newCustomer() {
+        String fn = RandomData.randomFirstName();
+        String ln = RandomData.randomLastName();
+
+        return Customer.builder()
+                .withFirstName(fn)
+                .withLastName(ln)
+                .withEmail(RandomData.randomEmail(fn, ln))
+                .withAddress(Address.builder()
+                        .withAddress1(RandomData.randomWord(15))
+                        .withAddress2(RandomData.randomWord(15))
+                        .withCity(RandomData.randomCity())
+                        .withPostcode(RandomData.randomZipCode())
+                        .withCountry(RandomData.randomCountry())
+                        .build())
+                .build();
+    }
+
+    private static Product newProduct() {
+        return Product.builder()
+                .withName("CockroachDB Unleashed - First Edition")
+                .withPrice(RandomData.randomBigDecimal(5, 500, 2))
+                .withSku(RandomData.randomWord(12))
+                .withInventory(INVENTORY_QUANTITY)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH JSON result files (baseline and candidate) produced by
+ * {@link BenchmarkRunner} and reports regressions in throughput (ops/time unit)
+ * and p99 latency beyond a given tolerance. Exits with a non-zero status if any
+ * regression is found, which makes it usable as a release gate.
+ * <p>
+ * Usage: {@code BenchmarkComparator <baseline.json> <candidate.json> [tolerance-percent]}
+ */
+public class BenchmarkComparator {
+    private static final String P99 = "99.0";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator <baseline.json> <candidate.json> [tolerance-percent]");
+            System.exit(2);
+        }
+
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = readResults(new File(args[0]));
+        Map<String, JsonNode> candidate = readResults(new File(args[1]));
+
+        int regressions = 0;
+
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+
+            JsonNode after = entry.getValue();
+            String mode = after.path("mode").asText();
+
+            if ("thrpt".equals(mode)) {
+                double a = before.path("primaryMetric").path("score").asDouble();
+                double b = after.path("primaryMetric").path("score").asDouble();
+                double change = percentChange(a, b);
+                boolean regressed = change < -tolerance;
+                if (regressed) {
+                    regressions++;
+                }
+                System.out.printf("%-10s %s: %.2f -> %.2f %s (%+.1f%%)%n",
+                        regressed ? "REGRESSED" : "OK",
+                        entry.getKey(), a, b, after.path("primaryMetric").path("scoreUnit").asText(), change);
+            } else if ("sample".equals(mode)) {
+                double a = before.path("primaryMetric").path("scorePercentiles").path(P99).asDouble();
+                double b = after.path("primaryMetric").path("scorePercentiles").path(P99).asDouble();
+                double change = percentChange(a, b);
+                boolean regressed = change > tolerance;
+                if (regressed) {
+                    regressions++;
+                }
+                System.out.printf("%-10s %s p99: %.3f -> %.3f %s (%+.1f%%)%n",
+                        regressed ? "REGRESSED" : "OK",
+                        entry.getKey(), a, b, after.path("primaryMetric").path("scoreUnit").asText(), change);
+            }
+        }
+
+        System.out.printf("%d regression(s) found using %.1f%% tolerance%n", regressions, tolerance);
+
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static double percentChange(double before, double after) {
+        return before != 0 ? (after - before) / before * 100.0 : 0;
+    }
+
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+
+        new ObjectMapper().readTree(file).forEach(node -> {
+            Map<String, String> params = new TreeMap<>();
+            node.path("params").fields().forEachRemaining(e -> params.put(e.getKey(), e.getValue().asText()));
+
+            String key = "%s [%s] threads=%d %s".formatted(
+                    node.path("benchmark").asText(),
+                    node.path("mode").asText(),
+                    node.path("threads").asInt(),
+                    params);
+            results.put(key, node);
+        });
+
+        return results;
+    }
+}
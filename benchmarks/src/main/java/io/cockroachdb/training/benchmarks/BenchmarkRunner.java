@@ -0,0 +1,59 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Launcher for all JMH benchmarks in this module. Runs the selected benchmarks once per
+ * configured thread count and writes machine-readable JSON results, one file per
+ * thread count, that can be compared between releases using {@link BenchmarkComparator}.
+ * <p>
+ * Configuration via system properties:
+ * <ul>
+ *     <li>benchmark.include - regex for benchmarks to include (default all)</li>
+ *     <li>benchmark.threads - comma separated list of thread counts (default 1)</li>
+ *     <li>benchmark.resultDir - output directory for JSON results (default target/jmh)</li>
+ * </ul>
+ * Any {@code spring.*} system property is propagated to the forked benchmark JVMs.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("benchmark.include", ".*");
+        String threads = System.getProperty("benchmark.threads", "1");
+        File resultDir = new File(System.getProperty("benchmark.resultDir", "target/jmh"));
+
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("Unable to create result directory: " + resultDir);
+        }
+
+        List<String> jvmArgs = new ArrayList<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("spring."))
+                .forEach(name -> jvmArgs.add("-D" + name + "=" + System.getProperty(name)));
+
+        for (int numThreads : Arrays.stream(threads.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray()) {
+            File resultFile = new File(resultDir, "result-threads-%d.json".formatted(numThreads));
+
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(numThreads)
+                    .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultFile.getPath())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
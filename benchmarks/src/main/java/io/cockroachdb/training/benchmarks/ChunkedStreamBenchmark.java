@@ -0,0 +1,57 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.cockroachdb.training.domain.util.StreamUtils;
+
+/**
+ * Measures {@link StreamUtils#chunkedStream} and {@link StreamUtils#forEachChunk} in isolation (no database involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkedStreamBenchmark {
+    @Param({"10000", "100000"})
+    public int numItems;
+
+    @Param({"32", "128", "512", "1024"})
+    public int chunkSize;
+
+    private List<Integer> items;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        this.items = IntStream.range(0, numItems).boxed().toList();
+    }
+
+    @Benchmark
+    public void chunkedStream(Blackhole blackhole) {
+        StreamUtils.chunkedStream(items.stream(), chunkSize)
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void forEachChunk(Blackhole blackhole) {
+        StreamUtils.forEachChunk(items.stream(), chunkSize,
+                Runtime.getRuntime().availableProcessors(), blackhole::consume);
+    }
+}
@@ -0,0 +1,78 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.performance.OrderService;
+
+/**
+ * Measures the chapter 3 {@link OrderService} order placement paths end-to-end through
+ * the transaction and retry advice, against a live database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class OrderPlacementBenchmark {
+    @State(Scope.Thread)
+    public static class OrderState {
+        private OrderService orderService;
+
+        private PurchaseOrder order;
+
+        @Setup(Level.Trial)
+        public void setupTrial(ApplicationState applicationState) {
+            this.orderService = applicationState.getBean(OrderService.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation(ApplicationState applicationState) {
+            this.order = applicationState.newPurchaseOrder();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ChunkState {
+        @Param({"32", "128", "512", "1024"})
+        public int batchSize;
+
+        private OrderService orderService;
+
+        private List<PurchaseOrder> chunk;
+
+        @Setup(Level.Trial)
+        public void setupTrial(ApplicationState applicationState) {
+            this.orderService = applicationState.getBean(OrderService.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation(ApplicationState applicationState) {
+            this.chunk = applicationState.newPurchaseOrders(batchSize);
+        }
+    }
+
+    @Benchmark
+    public void placeOrder(OrderState state) {
+        state.orderService.placeOrder(state.order);
+    }
+
+    @Benchmark
+    public void placeOrderChunk(ChunkState state) {
+        state.orderService.placeOrderChunk(state.chunk);
+    }
+}
@@ -0,0 +1,116 @@
+package io.cockroachdb.training.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.cockroachdb.training.domain.model.Product;
+
+/**
+ * Measures the unnest-array UPSERT path for products (see BatchInsertTest in chapter 3),
+ * with one single statement per chunk and transaction.
+ * <p>
+ * Each benchmark thread upserts chunks from its own disjoint slice of the product
+ * catalog, so that concurrent transactions never write the same keys and don't abort
+ * on serialization conflicts (40001), which would otherwise fail the iteration since
+ * there's no retry. Chunks are capped by the slice size with many threads.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UpsertBenchmark {
+    @State(Scope.Thread)
+    public static class ChunkState {
+        @Param({"32", "128", "512", "1024"})
+        public int batchSize;
+
+        private JdbcTemplate jdbcTemplate;
+
+        private TransactionTemplate transactionTemplate;
+
+        private List<Product> slice;
+
+        private List<Product> chunk;
+
+        @Setup(Level.Trial)
+        public void setupTrial(ApplicationState applicationState, ThreadParams threadParams) {
+            this.jdbcTemplate = new JdbcTemplate(applicationState.getBean(DataSource.class));
+            this.transactionTemplate = applicationState.getTransactionTemplate();
+
+            List<Product> products = applicationState.getProducts();
+            int sliceSize = products.size() / threadParams.getThreadCount();
+            if (sliceSize == 0) {
+                throw new IllegalStateException("Fewer products (" + products.size() + ") than threads ("
+                                                + threadParams.getThreadCount() + ")");
+            }
+            int sliceStart = threadParams.getThreadIndex() * sliceSize;
+            this.slice = products.subList(sliceStart, sliceStart + sliceSize);
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation() {
+            int size = Math.min(batchSize, slice.size());
+            int offset = ThreadLocalRandom.current().nextInt(slice.size() - size + 1);
+            this.chunk = slice.subList(offset, offset + size);
+        }
+    }
+
+    @Benchmark
+    public int upsertProducts(ChunkState state) {
+        List<Product> chunk = state.chunk;
+
+        Integer rows = state.transactionTemplate.execute(transactionStatus -> state.jdbcTemplate.update(
+                "UPSERT INTO product (id,inventory,price,name,sku) "
+                + "select unnest(?) as id, "
+                + "       unnest(?) as inventory, "
+                + "       unnest(?) as price, "
+                + "       unnest(?) as name, "
+                + "       unnest(?) as sku",
+                ps -> {
+                    UUID[] ids = new UUID[chunk.size()];
+                    Integer[] qty = new Integer[chunk.size()];
+                    BigDecimal[] price = new BigDecimal[chunk.size()];
+                    String[] name = new String[chunk.size()];
+                    String[] sku = new String[chunk.size()];
+
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Product product = chunk.get(i);
+                        ids[i] = product.getId();
+                        qty[i] = product.getInventory();
+                        price[i] = product.getPrice();
+                        name[i] = product.getName();
+                        sku[i] = product.getSku();
+                    }
+
+                    ps.setArray(1, ps.getConnection().createArrayOf("UUID", ids));
+                    ps.setArray(2, ps.getConnection().createArrayOf("BIGINT", qty));
+                    ps.setArray(3, ps.getConnection().createArrayOf("DECIMAL", price));
+                    ps.setArray(4, ps.getConnection().createArrayOf("VARCHAR", name));
+                    ps.setArray(5, ps.getConnection().createArrayOf("VARCHAR", sku));
+                }));
+
+        return rows != null ? rows : 0;
+    }
+}
@@ -11,6 +11,7 @@ import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
 import io.cockroachdb.training.domain.model.Simulation;
+import io.cockroachdb.training.domain.util.KeysetPage;
 
 public interface OrderService {
     Page<Product> findProducts(Pageable pageable);
@@ -19,6 +20,14 @@ public interface OrderService {
 
     Page<PurchaseOrder> findOrders(Pageable pageable);
 
+    KeysetPage<Product> findProducts(String continuationToken, int limit);
+
+    KeysetPage<Customer> findCustomers(String continuationToken, int limit);
+
+    KeysetPage<PurchaseOrder> findOrders(String continuationToken, int limit);
+
+    KeysetPage<PurchaseOrder> findOrdersByStatus(ShipmentStatus status, String continuationToken, int limit);
+
     Optional<PurchaseOrder> findOrderById(UUID id);
 
     PurchaseOrder placeOrder(PurchaseOrder order);
@@ -1,15 +1,20 @@
 package io.cockroachdb.training.transactions;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.orm.ObjectRetrievalFailureException;
@@ -31,9 +36,13 @@ import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
 import io.cockroachdb.training.domain.model.Simulation;
 import io.cockroachdb.training.domain.repository.CustomerRepository;
+import io.cockroachdb.training.domain.repository.InventoryRepository;
+import io.cockroachdb.training.domain.repository.InventoryUpdateStrategy;
 import io.cockroachdb.training.domain.repository.OrderRepository;
 import io.cockroachdb.training.domain.repository.ProductRepository;
 import io.cockroachdb.training.domain.util.AssertUtils;
+import io.cockroachdb.training.domain.util.ContinuationToken;
+import io.cockroachdb.training.domain.util.KeysetPage;
 
 /**
  * Business service facade for the order system. This service represents the
@@ -42,6 +51,12 @@ import io.cockroachdb.training.domain.util.AssertUtils;
  */
 @ServiceFacade
 public class OrderServiceFacade implements OrderService {
+    private static final Map<String, Function<String, ?>> ID_KEY = Map.of("id", UUID::fromString);
+
+    private static final Map<String, Function<String, ?>> STATUS_ID_KEYS = Map.of(
+            "status", ShipmentStatus::valueOf,
+            "id", UUID::fromString);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Autowired
@@ -53,6 +68,12 @@ public class OrderServiceFacade implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Value("${training.inventory-update-strategy:ENTITY}")
+    private InventoryUpdateStrategy inventoryUpdateStrategy;
+
     @Autowired
     private InventoryService inventoryService;
 
@@ -62,6 +83,10 @@ public class OrderServiceFacade implements OrderService {
     @PersistenceContext
     private EntityManager em;
 
+    public void setInventoryUpdateStrategy(InventoryUpdateStrategy inventoryUpdateStrategy) {
+        this.inventoryUpdateStrategy = inventoryUpdateStrategy;
+    }
+
     @TransactionImplicit
     @Override
     public Page<Product> findProducts(Pageable pageable) {
@@ -83,6 +108,39 @@ public class OrderServiceFacade implements OrderService {
         return orderRepository.findAll(pageable);
     }
 
+    @TransactionImplicit
+    @Override
+    public KeysetPage<Product> findProducts(String continuationToken, int limit) {
+        AssertUtils.assertNoTransaction();
+        return KeysetPage.of(productRepository.findAllByOrderByIdAsc(
+                ContinuationToken.decode(continuationToken, ID_KEY), Limit.of(limit)));
+    }
+
+    @TransactionImplicit
+    @Override
+    public KeysetPage<Customer> findCustomers(String continuationToken, int limit) {
+        AssertUtils.assertNoTransaction();
+        return KeysetPage.of(customerRepository.findAllByOrderByIdAsc(
+                ContinuationToken.decode(continuationToken, ID_KEY), Limit.of(limit)));
+    }
+
+    @TransactionImplicit
+    @Override
+    public KeysetPage<PurchaseOrder> findOrders(String continuationToken, int limit) {
+        AssertUtils.assertNoTransaction();
+        return KeysetPage.of(orderRepository.findAllByOrderByIdAsc(
+                ContinuationToken.decode(continuationToken, ID_KEY), Limit.of(limit)));
+    }
+
+    @TransactionImplicit
+    @Override
+    public KeysetPage<PurchaseOrder> findOrdersByStatus(ShipmentStatus status, String continuationToken,
+                                                        int limit) {
+        AssertUtils.assertNoTransaction();
+        return KeysetPage.of(orderRepository.findByStatusOrderByStatusAscIdAsc(status,
+                ContinuationToken.decode(continuationToken, STATUS_ID_KEYS), Limit.of(limit)));
+    }
+
     @Override
     @TransactionExplicit(readOnly = true)
     public Optional<PurchaseOrder> findOrderById(UUID id) {
@@ -96,12 +154,17 @@ public class OrderServiceFacade implements OrderService {
         AssertUtils.assertReadWriteTransaction();
 
         try {
-            // Update product inventories for each line item
-            order.getOrderItems().forEach(orderItem -> {
-                UUID productId = Objects.requireNonNull(orderItem.getProduct().getId());
-                Product product = productRepository.getReferenceById(productId);
-                product.addInventoryQuantity(-orderItem.getQuantity());
-            });
+            if (inventoryUpdateStrategy == InventoryUpdateStrategy.SET_BASED) {
+                // Update product inventories for all line items in one statement
+                inventoryRepository.decrementInventory(List.of(order));
+            } else {
+                // Update product inventories for each line item
+                order.getOrderItems().forEach(orderItem -> {
+                    UUID productId = Objects.requireNonNull(orderItem.getProduct().getId());
+                    Product product = productRepository.getReferenceById(productId);
+                    product.addInventoryQuantity(-orderItem.getQuantity());
+                });
+            }
 
             order.setStatus(ShipmentStatus.placed);
             order.setTotalPrice(order.subTotal());
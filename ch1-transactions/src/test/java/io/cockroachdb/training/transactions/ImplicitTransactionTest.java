@@ -1,5 +1,14 @@
 package io.cockroachdb.training.transactions;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -11,7 +20,11 @@ import org.springframework.data.domain.PageRequest;
 import io.cockroachdb.training.Chapter1Application;
 import io.cockroachdb.training.domain.model.Customer;
 import io.cockroachdb.training.domain.model.Product;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+import io.cockroachdb.training.domain.model.Simulation;
 import io.cockroachdb.training.domain.test.AbstractIntegrationTest;
+import io.cockroachdb.training.domain.util.KeysetPage;
 
 @SpringBootTest(classes = {Chapter1Application.class})
 public class ImplicitTransactionTest extends AbstractIntegrationTest {
@@ -50,4 +63,90 @@ public class ImplicitTransactionTest extends AbstractIntegrationTest {
             }
         }
     }
+
+    @Order(3)
+    @Test
+    public void whenListingProductsUsingKeysetPagination_thenExpectAllProductsOnce() {
+        Set<UUID> seen = new HashSet<>();
+
+        KeysetPage<Product> page = orderService.findProducts(null, 10);
+        while (page.hasContent()) {
+            logger.info("Found %s".formatted(page));
+            page.getContent().forEach(product ->
+                    Assertions.assertTrue(seen.add(product.getId()), "Duplicate product"));
+            if (page.hasNext()) {
+                page = orderService.findProducts(page.getNextToken(), 10);
+            } else {
+                break;
+            }
+        }
+
+        Assertions.assertFalse(seen.isEmpty());
+    }
+
+    private List<UUID> findAllOrdersByStatus(ShipmentStatus status) {
+        List<UUID> ids = new ArrayList<>();
+
+        KeysetPage<PurchaseOrder> page = orderService.findOrdersByStatus(status, null, 10);
+        while (page.hasContent()) {
+            page.getContent().forEach(order -> {
+                Assertions.assertEquals(status, order.getStatus());
+                ids.add(order.getId());
+            });
+            if (page.hasNext()) {
+                page = orderService.findOrdersByStatus(status, page.getNextToken(), 10);
+            } else {
+                break;
+            }
+        }
+
+        return ids;
+    }
+
+    @Order(4)
+    @Test
+    public void whenListingOrdersByStatusUsingKeysetPagination_thenExpectMatchingOrdersOnceInIdOrder() {
+        Set<UUID> placed = new HashSet<>();
+        Set<UUID> confirmed = new HashSet<>();
+
+        testDataService.withRandomCustomersAndProducts(10, 10, (customers, products) -> {
+            for (int i = 0; i < 35; i++) {
+                Customer customer = customers.get(i % customers.size());
+                Product product = products.get(i % products.size());
+
+                PurchaseOrder order = orderService.placeOrder(PurchaseOrder.builder()
+                        .withCustomer(customer)
+                        .andOrderItem()
+                        .withProductId(product.getId())
+                        .withProductSku(product.getSku())
+                        .withUnitPrice(BigDecimal.ONE)
+                        .withQuantity(1)
+                        .then()
+                        .build());
+
+                // Mix statuses so that pages span other statuses in the (status, id) index
+                if (i % 3 == 0) {
+                    orderService.updateOrder(order.getId(), ShipmentStatus.placed, ShipmentStatus.confirmed,
+                            Simulation.none());
+                    confirmed.add(order.getId());
+                } else {
+                    placed.add(order.getId());
+                }
+            }
+            return null;
+        });
+
+        List<UUID> placedIds = findAllOrdersByStatus(ShipmentStatus.placed);
+        Assertions.assertEquals(placed.size(), placedIds.size(), "Duplicate or missing order");
+        Assertions.assertEquals(placed, new HashSet<>(placedIds));
+        // Compared as unsigned bytes like the database does
+        Assertions.assertEquals(placedIds.stream().sorted(Comparator.comparing(UUID::toString)).toList(),
+                placedIds);
+
+        List<UUID> confirmedIds = findAllOrdersByStatus(ShipmentStatus.confirmed);
+        Assertions.assertEquals(confirmed.size(), confirmedIds.size(), "Duplicate or missing order");
+        Assertions.assertEquals(confirmed, new HashSet<>(confirmedIds));
+
+        Assertions.assertTrue(findAllOrdersByStatus(ShipmentStatus.delivered).isEmpty());
+    }
 }
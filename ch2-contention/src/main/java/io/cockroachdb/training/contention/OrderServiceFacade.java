@@ -1,6 +1,7 @@
 package io.cockroachdb.training.contention;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -8,6 +9,7 @@ import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.retry.annotation.Backoff;
@@ -25,6 +27,8 @@ import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
 import io.cockroachdb.training.domain.model.Simulation;
+import io.cockroachdb.training.domain.repository.InventoryRepository;
+import io.cockroachdb.training.domain.repository.InventoryUpdateStrategy;
 import io.cockroachdb.training.domain.repository.OrderRepository;
 import io.cockroachdb.training.domain.repository.ProductRepository;
 import io.cockroachdb.training.domain.util.AssertUtils;
@@ -44,9 +48,19 @@ public class OrderServiceFacade implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Value("${training.inventory-update-strategy:ENTITY}")
+    private InventoryUpdateStrategy inventoryUpdateStrategy;
+
     @PersistenceContext
     private EntityManager em;
 
+    public void setInventoryUpdateStrategy(InventoryUpdateStrategy inventoryUpdateStrategy) {
+        this.inventoryUpdateStrategy = inventoryUpdateStrategy;
+    }
+
     @Override
     @TransactionExplicit(readOnly = true)
     public Optional<PurchaseOrder> findOrderById(UUID id) {
@@ -65,12 +79,17 @@ public class OrderServiceFacade implements OrderService {
         AssertUtils.assertReadWriteTransaction();
 
         try {
-            // Update product inventories for each line item
-            order.getOrderItems().forEach(orderItem -> {
-                UUID productId = Objects.requireNonNull(orderItem.getProduct().getId());
-                Product product = productRepository.getReferenceById(productId);
-                product.addInventoryQuantity(-orderItem.getQuantity());
-            });
+            if (inventoryUpdateStrategy == InventoryUpdateStrategy.SET_BASED) {
+                // Update product inventories for all line items in one statement
+                inventoryRepository.decrementInventory(List.of(order));
+            } else {
+                // Update product inventories for each line item
+                order.getOrderItems().forEach(orderItem -> {
+                    UUID productId = Objects.requireNonNull(orderItem.getProduct().getId());
+                    Product product = productRepository.getReferenceById(productId);
+                    product.addInventoryQuantity(-orderItem.getQuantity());
+                });
+            }
 
             order.setStatus(ShipmentStatus.placed);
             order.setTotalPrice(order.subTotal());
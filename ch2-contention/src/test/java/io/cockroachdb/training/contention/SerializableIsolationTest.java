@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import jakarta.persistence.OptimisticLockException;
 
 import io.cockroachdb.training.common.aspect.MetadataUtils;
+import io.cockroachdb.training.common.retry.RetryStats;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
 import io.cockroachdb.training.domain.model.Simulation;
@@ -98,6 +99,11 @@ public class SerializableIsolationTest extends AbstractIsolationTest {
 
         Assertions.assertEquals(2, transientExceptionRetryListener.getSuccess());
         Assertions.assertEquals(1, transientExceptionRetryListener.getError());
+
+        RetryStats retryStats = transientExceptionRetryListener.getStats("OrderServiceFacade.updateOrder(..)");
+        Assertions.assertEquals(2, retryStats.getCalls());
+        Assertions.assertEquals(3, retryStats.getAttempts());
+        Assertions.assertEquals(2, retryStats.getMaxAttempts());
     }
 
     @Order(2)
@@ -0,0 +1,228 @@
+package io.cockroachdb.training.performance;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.cockroachdb.training.common.annotation.ServiceFacade;
+import io.cockroachdb.training.common.backoff.BackoffStrategy;
+import io.cockroachdb.training.common.backoff.DecorrelatedJitterBackoffStrategy;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.util.AssertUtils;
+import io.cockroachdb.training.domain.util.Chunk;
+import io.cockroachdb.training.domain.util.StreamUtils;
+
+/**
+ * Bulk order placement engine that fans out chunks of orders to a bounded number of
+ * virtual thread workers, each placing its chunk in a separate transaction through
+ * {@link OrderService#placeOrderChunk(java.util.Collection)}.
+ * <p>
+ * The number of concurrent workers is capped by the connection pool size, since any
+ * worker beyond that would just queue up on the pool. The source stream is consumed
+ * lazily and the caller thread blocks (back-pressure) when all workers are busy, so at
+ * most one chunk per worker is held in memory. Chunks failing with a transient SQL error
+ * (40001) are retried with exponential backoff, while other failures are recorded in
+ * the summary without aborting the remaining chunks.
+ * <p>
+ * Each attempt places fresh copies of the orders in a chunk, since a rolled back attempt
+ * leaves generated IDs and state behind on the entities it persisted. The orders passed
+ * in are never modified.
+ * <p>
+ * The placement methods are not transaction boundaries and must be called without a
+ * transaction. They are deliberately left out of admission control, since a coordinator
+ * holding a permit while waiting on its workers would keep one worker queued. Each
+ * chunk transaction is admitted on its own.
+ */
+@ServiceFacade
+public class BulkOrderPlacementEngine {
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    private static final long BASE_BACKOFF = 10;
+
+    private final BackoffStrategy backoffStrategy = new DecorrelatedJitterBackoffStrategy();
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private HikariDataSource hikariDataSource;
+
+    public void setOrderService(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    public void setHikariDataSource(HikariDataSource hikariDataSource) {
+        this.hikariDataSource = hikariDataSource;
+    }
+
+    private int retryAttempts = 10;
+
+    private long maxBackoff = 5000;
+
+    public void setRetryAttempts(int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Place orders using as many workers as the connection pool allows.
+     *
+     * @see #placeOrders(Stream, int, int, Consumer)
+     */
+    public BulkPlacementSummary placeOrders(Stream<PurchaseOrder> orders, int batchSize,
+                                            Consumer<Integer> progress) {
+        return placeOrders(orders, batchSize, hikariDataSource.getMaximumPoolSize(), progress);
+    }
+
+    /**
+     * Place orders in chunks using concurrent workers.
+     *
+     * @param orders      the order source, consumed lazily
+     * @param batchSize   number of orders per chunk and transaction
+     * @param concurrency max number of concurrent workers, capped by the pool size
+     * @param progress    callback receiving the size of each completed chunk, invoked
+     *                    in chunk order regardless of completion order
+     * @return the final summary
+     */
+    public BulkPlacementSummary placeOrders(Stream<PurchaseOrder> orders, int batchSize, int concurrency,
+                                            Consumer<Integer> progress) {
+        AssertUtils.assertNoTransaction();
+
+        final int workers = Math.max(1, Math.min(concurrency, hikariDataSource.getMaximumPoolSize()));
+        final Semaphore permits = new Semaphore(workers);
+        final OrderedProgress orderedProgress = new OrderedProgress(progress);
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final List<Long> failedChunks = new ArrayList<>();
+        final Instant startTime = Instant.now();
+
+        long chunks = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<Chunk<PurchaseOrder>> chunkStream = StreamUtils.chunks(orders, batchSize)) {
+            for (Chunk<PurchaseOrder> chunk : (Iterable<Chunk<PurchaseOrder>>) chunkStream::iterator) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted - skipping remaining chunks after chunk {}", chunk.getIndex());
+                    break;
+                }
+
+                chunks++;
+
+                executor.submit(() -> {
+                    boolean success = false;
+                    try {
+                        retries.addAndGet(placeChunk(chunk));
+                        rows.addAndGet(chunk.size());
+                        success = true;
+                    } catch (RuntimeException e) {
+                        logger.warn("Chunk %d with %d orders failed: %s"
+                                .formatted(chunk.getIndex(), chunk.size(), e.getMessage()));
+                    } finally {
+                        permits.release();
+                        if (!success) {
+                            synchronized (failedChunks) {
+                                failedChunks.add(chunk.getIndex());
+                            }
+                        }
+                        orderedProgress.completed(chunk.getIndex(), chunk.size());
+                    }
+                });
+            }
+        } // waits for all submitted chunks to complete
+
+        failedChunks.sort(Long::compareTo);
+
+        BulkPlacementSummary summary = new BulkPlacementSummary(rows.get(), chunks, retries.get(),
+                failedChunks, Duration.between(startTime, Instant.now()));
+
+        logger.info("Bulk order placement completed with {} workers: {}", workers, summary);
+
+        return summary;
+    }
+
+    /**
+     * Place one chunk in its own transaction, retrying on transient errors.
+     *
+     * @return number of retries needed
+     */
+    private int placeChunk(Chunk<PurchaseOrder> chunk) {
+        int retries = 0;
+        long backoff = 0;
+
+        while (true) {
+            try {
+                orderService.placeOrderChunk(chunk.stream().map(PurchaseOrder::copy).toList());
+                return retries;
+            } catch (RuntimeException e) {
+                Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+                if (!(cause instanceof SQLException sqlException)
+                    || !SERIALIZATION_FAILURE.equals(sqlException.getSQLState())
+                    || retries >= retryAttempts) {
+                    throw e;
+                }
+
+                retries++;
+                backoff = backoffStrategy.nextBackoff(retries, backoff, BASE_BACKOFF, maxBackoff);
+
+                logger.debug("Transient SQL error for chunk {} attempt ({}) backoff {} ms",
+                        chunk.getIndex(), retries, backoff);
+
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers chunk completions to a callback in chunk order, buffering
+     * out-of-order completions until all preceding chunks are done.
+     */
+    private static class OrderedProgress {
+        private final Consumer<Integer> delegate;
+
+        private final TreeMap<Long, Integer> pending = new TreeMap<>();
+
+        private long nextIndex;
+
+        OrderedProgress(Consumer<Integer> delegate) {
+            this.delegate = delegate;
+        }
+
+        synchronized void completed(long index, int size) {
+            pending.put(index, size);
+            while (!pending.isEmpty() && pending.firstKey() == nextIndex) {
+                delegate.accept(pending.pollFirstEntry().getValue());
+                nextIndex++;
+            }
+        }
+    }
+}
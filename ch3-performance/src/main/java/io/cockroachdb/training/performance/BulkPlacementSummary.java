@@ -0,0 +1,77 @@
+package io.cockroachdb.training.performance;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Final outcome of a bulk order placement run.
+ */
+public class BulkPlacementSummary {
+    private final long rows;
+
+    private final long chunks;
+
+    private final long retries;
+
+    private final List<Long> failedChunks;
+
+    private final Duration elapsedTime;
+
+    public BulkPlacementSummary(long rows, long chunks, long retries, List<Long> failedChunks,
+                                Duration elapsedTime) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.retries = retries;
+        this.failedChunks = Collections.unmodifiableList(failedChunks);
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * @return number of orders placed successfully
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return total number of chunks processed, including failed ones
+     */
+    public long getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return total number of chunk retries on transient errors
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return ordinals of chunks that failed permanently, in ascending order
+     */
+    public List<Long> getFailedChunks() {
+        return failedChunks;
+    }
+
+    public Duration getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public double getRowsPerSecond() {
+        return (double) rows / Math.max(1, elapsedTime.toMillis()) * 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkPlacementSummary{" +
+               "rows=" + rows +
+               ", chunks=" + chunks +
+               ", retries=" + retries +
+               ", failedChunks=" + failedChunks +
+               ", elapsedTime=" + elapsedTime +
+               ", rowsPerSecond=" + "%.1f".formatted(getRowsPerSecond()) +
+               '}';
+    }
+}
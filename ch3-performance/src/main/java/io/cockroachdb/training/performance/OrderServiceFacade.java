@@ -2,15 +2,16 @@ package io.cockroachdb.training.performance;
 
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import io.cockroachdb.training.common.annotation.ServiceFacade;
@@ -20,11 +21,15 @@ import io.cockroachdb.training.common.annotation.TransactionExplicit;
 import io.cockroachdb.training.common.annotation.TransactionImplicit;
 import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
-import io.cockroachdb.training.domain.model.PurchaseOrderItem;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
+import io.cockroachdb.training.domain.repository.InventoryRepository;
+import io.cockroachdb.training.domain.repository.InventoryUpdateStrategy;
+import io.cockroachdb.training.domain.repository.OrderBulkRepository;
+import io.cockroachdb.training.domain.repository.OrderInsertStrategy;
 import io.cockroachdb.training.domain.repository.OrderRepository;
 import io.cockroachdb.training.domain.repository.ProductRepository;
 import io.cockroachdb.training.domain.util.AssertUtils;
+import io.cockroachdb.training.domain.util.ProductIndex;
 import io.cockroachdb.training.domain.util.StreamUtils;
 
 /**
@@ -40,9 +45,29 @@ public class OrderServiceFacade implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderBulkRepository orderBulkRepository;
+
+    @Value("${training.inventory-update-strategy:ENTITY}")
+    private InventoryUpdateStrategy inventoryUpdateStrategy;
+
+    @Value("${training.order-insert-strategy:ENTITY}")
+    private OrderInsertStrategy orderInsertStrategy;
+
     @Autowired
     private ObjectProvider<OrderService> objectProvider;
 
+    public void setInventoryUpdateStrategy(InventoryUpdateStrategy inventoryUpdateStrategy) {
+        this.inventoryUpdateStrategy = inventoryUpdateStrategy;
+    }
+
+    public void setOrderInsertStrategy(OrderInsertStrategy orderInsertStrategy) {
+        this.orderInsertStrategy = orderInsertStrategy;
+    }
+
     @Override
     @TransactionImplicit
     public BigDecimal sumOrderTotals() {
@@ -69,12 +94,17 @@ public class OrderServiceFacade implements OrderService {
         AssertUtils.assertReadWriteTransaction();
 
         try {
-            // Update product inventories for each line item
-            order.getOrderItems().forEach(orderItem -> {
-                Product product = productRepository.getReferenceById(
-                        Objects.requireNonNull(orderItem.getProduct().getId()));
-                product.addInventoryQuantity(-orderItem.getQuantity());
-            });
+            if (inventoryUpdateStrategy == InventoryUpdateStrategy.SET_BASED) {
+                // Update product inventories for all line items in one statement
+                inventoryRepository.decrementInventory(List.of(order));
+            } else {
+                // Update product inventories for each line item
+                order.getOrderItems().forEach(orderItem -> {
+                    Product product = productRepository.getReferenceById(
+                            Objects.requireNonNull(orderItem.getProduct().getId()));
+                    product.addInventoryQuantity(-orderItem.getQuantity());
+                });
+            }
 
             order.setStatus(ShipmentStatus.placed);
             order.setTotalPrice(order.subTotal());
@@ -109,34 +139,44 @@ public class OrderServiceFacade implements OrderService {
         AssertUtils.assertReadWriteTransaction();
 
         try {
-            // Collect all unique product IDs from order line items
-            Set<UUID> ids = chunk.stream()
-                    .flatMap(purchaseOrder -> purchaseOrder.getOrderItems().stream()
-                            .map(PurchaseOrderItem::getProduct)
-                            .map(Product::getId)
-                            .collect(Collectors.toSet())
-                            .stream())
-                    .collect(Collectors.toSet());
-
-            // Use IN predicate
-            List<Product> products = productRepository.findAllById(ids);
-
-            // Update product inventories for each line item
-            chunk.forEach(order -> {
-                order.getOrderItems().forEach(purchaseOrderItem -> {
-                    Product product = products.stream()
-                            .filter(x -> Objects.requireNonNull(x.getId())
-                                    .equals(purchaseOrderItem.getProduct().getId()))
-                            .findFirst()
-                            .orElseThrow();
-                    product.addInventoryQuantity(-purchaseOrderItem.getQuantity());
-                });
+            if (inventoryUpdateStrategy == InventoryUpdateStrategy.SET_BASED) {
+                // Update product inventories for all line items in one statement
+                inventoryRepository.decrementInventory(chunk);
 
-                order.setStatus(ShipmentStatus.placed);
-                order.setTotalPrice(order.subTotal());
-            });
+                chunk.forEach(order -> {
+                    order.setStatus(ShipmentStatus.placed);
+                    order.setTotalPrice(order.subTotal());
+                });
+            } else {
+                // Collect all unique product IDs from order line items
+                Set<UUID> ids = new HashSet<>();
+                chunk.forEach(purchaseOrder -> purchaseOrder.getOrderItems()
+                        .forEach(orderItem -> ids.add(orderItem.getProduct().getId())));
+
+                // Use IN predicate and index by ID for constant time lookups
+                ProductIndex productIndex = ProductIndex.of(productRepository.findAllById(ids));
+
+                // Aggregate inventory decrements per product for each line item
+                chunk.forEach(order -> {
+                    order.getOrderItems().forEach(purchaseOrderItem ->
+                            productIndex.addDelta(purchaseOrderItem.getProduct().getId(),
+                                    -purchaseOrderItem.getQuantity()));
+
+                    order.setStatus(ShipmentStatus.placed);
+                    order.setTotalPrice(order.subTotal());
+                });
 
-            orderRepository.saveAllAndFlush(chunk); // flush to surface any constraint violations
+                // Apply the net change to each product (still one UPDATE per product on flush)
+                productIndex.applyDeltas();
+            }
+
+            if (orderInsertStrategy == OrderInsertStrategy.BULK) {
+                // Insert orders and line items in one statement
+                orderBulkRepository.insertOrders(chunk);
+                productRepository.flush(); // flush to surface any constraint violations
+            } else {
+                orderRepository.saveAllAndFlush(chunk); // flush to surface any constraint violations
+            }
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Constraint violation", e);
         }
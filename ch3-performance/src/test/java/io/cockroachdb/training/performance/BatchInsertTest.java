@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import javax.sql.DataSource;
@@ -21,8 +22,6 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -31,14 +30,14 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import io.cockroachdb.training.Chapter3Application;
 import io.cockroachdb.training.domain.model.Product;
-import io.cockroachdb.training.domain.repository.ProductRepository;
+import io.cockroachdb.training.domain.repository.StreamingRepository;
 import io.cockroachdb.training.domain.test.AbstractIntegrationTest;
 import io.cockroachdb.training.domain.util.StreamUtils;
 
 @SpringBootTest(classes = {Chapter3Application.class})
 public class BatchInsertTest extends AbstractIntegrationTest {
     @Autowired
-    private ProductRepository productRepository;
+    private StreamingRepository streamingRepository;
 
     @Autowired
     private DataSource dataSource;
@@ -50,6 +49,8 @@ public class BatchInsertTest extends AbstractIntegrationTest {
 
     private TransactionTemplate transactionTemplate;
 
+    private TransactionTemplate readTransactionTemplate;
+
     private final int numProducts = 1024 * 10;
 
     @BeforeAll
@@ -59,6 +60,31 @@ public class BatchInsertTest extends AbstractIntegrationTest {
         this.transactionTemplate = new TransactionTemplate(platformTransactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         this.transactionTemplate.setReadOnly(false);
+
+        // Streaming reads need a transaction for the driver to use a cursor
+        this.readTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+    }
+
+    private void forEachProductChunk(int batchSize, Consumer<List<Product>> action) {
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<Product> products = streamingRepository.streamProducts()) {
+                StreamUtils.chunkedStream(products, batchSize).forEach(action);
+            }
+        });
+    }
+
+    private void assertProducts(Map<UUID, Product> updatedProducts) {
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<Product> products = streamingRepository.streamProducts()) {
+                products.filter(product -> updatedProducts.containsKey(product.getId()))
+                        .forEach(product -> {
+                            Product p = updatedProducts.get(product.getId());
+                            Assertions.assertEquals(p.getInventory(), product.getInventory());
+                            Assertions.assertEquals(p.getPrice(), product.getPrice());
+                        });
+            }
+        });
     }
 
     @Order(0)
@@ -71,14 +97,10 @@ public class BatchInsertTest extends AbstractIntegrationTest {
     @ParameterizedTest
     @ValueSource(ints = {128, 256, 512, 768, 1024})
     public void whenGivenBatchInserts_thenExpectDriverRewrite(int batchSize) throws SQLException {
-        Page<Product> products = productRepository.findAll(Pageable.ofSize(numProducts));
-
-        Stream<List<Product>> chunks = StreamUtils.chunkedStream(products.stream(), batchSize);
-
         try (Connection connection = dataSource.getConnection()) {
             connection.setAutoCommit(true);
 
-            chunks.forEach(chunk -> {
+            forEachProductChunk(batchSize, chunk -> {
                 try (PreparedStatement ps = connection.prepareStatement(
                         "INSERT INTO product (id,inventory,price,name,sku) values (?,?,?,?,?) "
                         + "ON CONFLICT (id) DO NOTHING")) {
@@ -108,9 +130,7 @@ public class BatchInsertTest extends AbstractIntegrationTest {
 
         Map<UUID, Product> updatedProducts = new HashMap<>();
 
-        Page<Product> products = productRepository.findAll(Pageable.ofSize(numProducts));
-
-        StreamUtils.chunkedStream(products.stream(), batchSize).forEach(chunk -> {
+        forEachProductChunk(batchSize, chunk -> {
             transactionTemplate.executeWithoutResult(transactionStatus -> {
                 int rows = jdbcTemplate.update(
                         "INSERT INTO product (id,inventory,price,name,sku) "
@@ -151,11 +171,7 @@ public class BatchInsertTest extends AbstractIntegrationTest {
             });
         });
 
-        productRepository.findAllById(updatedProducts.keySet()).forEach(product -> {
-            Product p = updatedProducts.get(product.getId());
-            Assertions.assertEquals(p.getInventory(), product.getInventory());
-            Assertions.assertEquals(p.getPrice(), product.getPrice());
-        });
+        assertProducts(updatedProducts);
     }
 
     @Order(3)
@@ -166,9 +182,7 @@ public class BatchInsertTest extends AbstractIntegrationTest {
 
         Map<UUID, Product> updatedProducts = new HashMap<>();
 
-        Page<Product> products = productRepository.findAll(Pageable.ofSize(numProducts));
-
-        StreamUtils.chunkedStream(products.stream(), batchSize).forEach(chunk -> {
+        forEachProductChunk(batchSize, chunk -> {
             transactionTemplate.executeWithoutResult(transactionStatus -> {
                 int rows = jdbcTemplate.update(
                         "UPSERT INTO product (id,inventory,price,name,sku) "
@@ -208,10 +222,6 @@ public class BatchInsertTest extends AbstractIntegrationTest {
             });
         });
 
-        productRepository.findAllById(updatedProducts.keySet()).forEach(product -> {
-            Product p = updatedProducts.get(product.getId());
-            Assertions.assertEquals(p.getInventory(), product.getInventory());
-            Assertions.assertEquals(p.getPrice(), product.getPrice());
-        });
+        assertProducts(updatedProducts);
     }
 }
\ No newline at end of file
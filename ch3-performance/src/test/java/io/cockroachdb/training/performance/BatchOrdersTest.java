@@ -1,21 +1,33 @@
 package io.cockroachdb.training.performance;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.cockroachdb.training.Chapter3Application;
 import io.cockroachdb.training.domain.model.Customer;
 import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.repository.InventoryUpdateStrategy;
+import io.cockroachdb.training.domain.repository.OrderInsertStrategy;
+import io.cockroachdb.training.domain.repository.OrderRepository;
+import io.cockroachdb.training.domain.repository.StreamingRepository;
 import io.cockroachdb.training.domain.test.AbstractIntegrationTest;
 import io.cockroachdb.training.domain.util.RandomData;
 
@@ -24,6 +36,21 @@ public class BatchOrdersTest extends AbstractIntegrationTest {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderServiceFacade orderServiceFacade;
+
+    @Autowired
+    private BulkOrderPlacementEngine bulkOrderPlacementEngine;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StreamingRepository streamingRepository;
+
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
     protected final int numProducts = 250;
 
     protected final int numCustomers = 1000;
@@ -93,4 +120,104 @@ public class BatchOrdersTest extends AbstractIntegrationTest {
                     return null;
                 });
     }
+
+    @Order(3)
+    @ParameterizedTest
+    @ValueSource(ints = {1000, 5000, 10000})
+    public void whenCreatingBulkOrdersConcurrently_thenSucceed(int numOrders) {
+        testDataService.withRandomCustomersAndProducts(100, 100,
+                (customers, products) -> {
+                    Assertions.assertFalse(customers.isEmpty(), "No customers");
+                    Assertions.assertFalse(products.isEmpty(), "No products");
+
+                    AtomicInteger progress = new AtomicInteger();
+
+                    BulkPlacementSummary summary = bulkOrderPlacementEngine.placeOrders(
+                            IntStream.rangeClosed(1, numOrders).mapToObj(value -> {
+                                Customer customer = RandomData.selectRandom(customers);
+                                Product product = RandomData.selectRandom(products);
+
+                                return PurchaseOrder.builder()
+                                        .withCustomer(customer)
+                                        .andOrderItem()
+                                        .withProductId(product.getId())
+                                        .withProductSku(product.getSku())
+                                        .withUnitPrice(product.getPrice())
+                                        .withQuantity(1)
+                                        .then()
+                                        .build();
+                            }), 32, progress::addAndGet);
+
+                    logger.info("{}", summary);
+
+                    Assertions.assertEquals(numOrders, progress.get());
+                    Assertions.assertEquals(numOrders, summary.getRows());
+                    Assertions.assertTrue(summary.getFailedChunks().isEmpty());
+
+                    return null;
+                });
+    }
+
+    @Order(4)
+    @ParameterizedTest
+    @ValueSource(ints = {10, 250, 500, 750, 1000})
+    public void whenCreatingBatchOrdersUsingSetBasedInventoryUpdates_thenSucceed(int numOrders) {
+        orderServiceFacade.setInventoryUpdateStrategy(InventoryUpdateStrategy.SET_BASED);
+        try {
+            whenCreatingBatchOrders_thenSucceed(numOrders);
+        } finally {
+            orderServiceFacade.setInventoryUpdateStrategy(InventoryUpdateStrategy.ENTITY);
+        }
+    }
+
+    @Order(5)
+    @ParameterizedTest
+    @ValueSource(ints = {10, 250, 500, 750, 1000})
+    public void whenCreatingBatchOrdersUsingBulkInserts_thenSucceed(int numOrders) {
+        orderServiceFacade.setOrderInsertStrategy(OrderInsertStrategy.BULK);
+        try {
+            whenCreatingBatchOrders_thenSucceed(numOrders);
+        } finally {
+            orderServiceFacade.setOrderInsertStrategy(OrderInsertStrategy.ENTITY);
+        }
+    }
+
+    @Order(6)
+    @Test
+    public void whenStreamingOrders_thenReadSameOrdersUsingJpaAndJdbc() {
+        // Streaming reads need a transaction for the driver to use a cursor
+        TransactionTemplate readTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        readTransactionTemplate.setReadOnly(true);
+
+        // Order state is captured while the entity is still managed
+        Map<UUID, String> jpaOrders = new LinkedHashMap<>();
+        Map<UUID, String> jdbcOrders = new LinkedHashMap<>();
+
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<PurchaseOrder> orders = orderRepository.streamOrders()) {
+                orders.forEach(order -> jpaOrders.put(order.getId(), describe(order)));
+            }
+        });
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<PurchaseOrder> orders = streamingRepository.streamOrders()) {
+                orders.forEach(order -> jdbcOrders.put(order.getId(), describe(order)));
+            }
+        });
+
+        Assertions.assertFalse(jpaOrders.isEmpty(), "No orders");
+        Assertions.assertEquals(List.copyOf(jpaOrders.keySet()), List.copyOf(jdbcOrders.keySet()));
+        Assertions.assertEquals(jpaOrders, jdbcOrders);
+    }
+
+    private static String describe(PurchaseOrder order) {
+        StringBuilder sb = new StringBuilder()
+                .append(order.getStatus()).append(':')
+                .append(order.getTotalPrice()).append(':')
+                .append(order.getCustomer().getId());
+        order.getOrderItems().forEach(orderItem -> sb.append(':')
+                .append(orderItem.getProduct().getId()).append('x')
+                .append(orderItem.getQuantity()).append('@')
+                .append(orderItem.getUnitPrice()));
+        return sb.toString();
+    }
 }
@@ -9,6 +9,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -20,8 +22,6 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -31,7 +31,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import io.cockroachdb.training.Chapter3Application;
 import io.cockroachdb.training.domain.model.Product;
-import io.cockroachdb.training.domain.repository.ProductRepository;
+import io.cockroachdb.training.domain.repository.StreamingRepository;
 import io.cockroachdb.training.domain.test.AbstractIntegrationTest;
 import io.cockroachdb.training.domain.util.StreamUtils;
 import static java.sql.Statement.SUCCESS_NO_INFO;
@@ -39,7 +39,7 @@ import static java.sql.Statement.SUCCESS_NO_INFO;
 @SpringBootTest(classes = {Chapter3Application.class})
 public class BatchUpdateTest extends AbstractIntegrationTest {
     @Autowired
-    private ProductRepository productRepository;
+    private StreamingRepository streamingRepository;
 
     @Autowired
     private DataSource dataSource;
@@ -51,6 +51,8 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
 
     private TransactionTemplate transactionTemplate;
 
+    private TransactionTemplate readTransactionTemplate;
+
     private final int numProducts = 1024 * 10;
 
     @BeforeAll
@@ -60,6 +62,31 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
         this.transactionTemplate = new TransactionTemplate(platformTransactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         this.transactionTemplate.setReadOnly(false);
+
+        // Streaming reads need a transaction for the driver to use a cursor
+        this.readTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+    }
+
+    private void forEachProductChunk(int batchSize, Consumer<List<Product>> action) {
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<Product> products = streamingRepository.streamProducts()) {
+                StreamUtils.chunkedStream(products, batchSize).forEach(action);
+            }
+        });
+    }
+
+    private void assertProducts(Map<UUID, Product> updatedProducts) {
+        readTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            try (Stream<Product> products = streamingRepository.streamProducts()) {
+                products.filter(product -> updatedProducts.containsKey(product.getId()))
+                        .forEach(product -> {
+                            Product p = updatedProducts.get(product.getId());
+                            Assertions.assertEquals(p.getInventory(), product.getInventory());
+                            Assertions.assertEquals(p.getPrice(), product.getPrice());
+                        });
+            }
+        });
     }
 
     @Order(1)
@@ -76,10 +103,8 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
 
         Map<UUID, Product> updatedProducts = new HashMap<>();
 
-        Page<Product> products = productRepository.findAll(Pageable.ofSize(numProducts));
-
         // This doesn't actually get batched over wire in PSQL (like with INSERT rewrites)
-        StreamUtils.chunkedStream(products.stream(), batchSize).forEach(chunk -> {
+        forEachProductChunk(batchSize, chunk -> {
             transactionTemplate.executeWithoutResult(transactionStatus -> {
                 Assertions.assertTrue(TransactionSynchronizationManager.isActualTransactionActive(), "TX not active");
 
@@ -111,11 +136,7 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
             });
         });
 
-        productRepository.findAllById(updatedProducts.keySet()).forEach(product -> {
-            Product p = updatedProducts.get(product.getId());
-            Assertions.assertEquals(p.getInventory(), product.getInventory());
-            Assertions.assertEquals(p.getPrice(), product.getPrice());
-        });
+        assertProducts(updatedProducts);
     }
 
     @Order(3)
@@ -126,10 +147,8 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
 
         Map<UUID, Product> updatedProducts = new HashMap<>();
 
-        Page<Product> products = productRepository.findAll(Pageable.ofSize(numProducts));
-
         // This does send a single statement batch over the wire
-        StreamUtils.chunkedStream(products.stream(), batchSize).forEach(chunk -> {
+        forEachProductChunk(batchSize, chunk -> {
             transactionTemplate.executeWithoutResult(transactionStatus -> {
                 int rows = jdbcTemplate.update(
                         "UPDATE product SET inventory=data_table.new_inventory, price=data_table.new_price "
@@ -159,10 +178,6 @@ public class BatchUpdateTest extends AbstractIntegrationTest {
             });
         });
 
-        productRepository.findAllById(updatedProducts.keySet()).forEach(product -> {
-            Product p = updatedProducts.get(product.getId());
-            Assertions.assertEquals(p.getInventory(), product.getInventory());
-            Assertions.assertEquals(p.getPrice(), product.getPrice());
-        });
+        assertProducts(updatedProducts);
     }
 }
\ No newline at end of file
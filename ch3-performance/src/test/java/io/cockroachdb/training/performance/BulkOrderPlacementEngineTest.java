@@ -0,0 +1,122 @@
+package io.cockroachdb.training.performance;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.test.TestDoubles;
+
+@Tag("unit-test")
+public class BulkOrderPlacementEngineTest {
+    /**
+     * Places chunks like the ENTITY insert strategy: orders must be transient, get an ID
+     * assigned on persist, and the first attempt of each chunk fails with a 40001 after
+     * the IDs are assigned, as on a flush rolled back by a serialization conflict.
+     */
+    private static class PersistingOrderService implements OrderService {
+        private final Set<UUID> failedOnce = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger placed = new AtomicInteger();
+
+        @Override
+        public void placeOrderChunk(Collection<PurchaseOrder> chunk) {
+            chunk.forEach(order -> {
+                if (order.getId() != null) {
+                    throw new IllegalStateException("detached entity passed to persist");
+                }
+                order.setId(UUID.randomUUID());
+                order.preCreate();
+            });
+
+            UUID customerId = chunk.iterator().next().getCustomer().getId();
+            if (failedOnce.add(customerId)) {
+                throw new ConcurrencyFailureException("Flush failed",
+                        new SQLException("restart transaction", "40001"));
+            }
+            placed.addAndGet(chunk.size());
+        }
+
+        @Override
+        public BigDecimal sumOrderTotals() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BigDecimal sumOrderTotalsHistoricalQuery() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BigDecimal sumOrderTotalsHistoricalNativeQuery() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void placeOrder(PurchaseOrder order) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void placeOrders(Collection<PurchaseOrder> orders, int batchSize, Consumer<Integer> consumer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    public void whenChunkFailsWithSerializationError_thenRetryWithTransientOrders() {
+        PersistingOrderService orderService = new PersistingOrderService();
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(4);
+
+        BulkOrderPlacementEngine engine = new BulkOrderPlacementEngine();
+        engine.setOrderService(orderService);
+        engine.setHikariDataSource(dataSource);
+        engine.setMaxBackoff(1);
+
+        // One customer per chunk, to fail the first attempt of each chunk
+        List<PurchaseOrder> orders = IntStream.range(0, 40)
+                .mapToObj(i -> {
+                    Customer customer = Customer.builder()
+                            .withId(new UUID(0, i / 10))
+                            .withAddress(TestDoubles.newAddress())
+                            .build();
+                    return PurchaseOrder.builder()
+                            .withCustomer(customer)
+                            .andOrderItem()
+                            .withProductId(UUID.randomUUID())
+                            .withUnitPrice(BigDecimal.TEN)
+                            .withQuantity(1)
+                            .then()
+                            .build();
+                })
+                .toList();
+
+        AtomicInteger progress = new AtomicInteger();
+        BulkPlacementSummary summary = engine.placeOrders(orders.stream(), 10, 4, progress::addAndGet);
+
+        Assertions.assertEquals(40, summary.getRows());
+        Assertions.assertEquals(4, summary.getRetries());
+        Assertions.assertTrue(summary.getFailedChunks().isEmpty());
+        Assertions.assertEquals(40, orderService.placed.get());
+        Assertions.assertEquals(40, progress.get());
+        // Orders passed in are left untouched
+        orders.forEach(order -> Assertions.assertNull(order.getId()));
+    }
+}
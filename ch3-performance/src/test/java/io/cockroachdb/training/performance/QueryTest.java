@@ -124,9 +124,7 @@ public class QueryTest extends AbstractIntegrationTest {
     private List<BigDecimal> runConcurrentlyAndCollect(int threads, Callable<BigDecimal> task) {
         SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
         executor.setVirtualThreads(true);
-        // If this is removed then the virtual threads will queue up, so ensure the connection-timeout value
-        // is high enough, or you risk getting timeouts (signalling pool exhaustion).
-        executor.setConcurrencyLimit(32);
+        // No concurrency limit, callers queue in admission control rather than on the pool
 
         List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
 
@@ -0,0 +1,67 @@
+package io.cockroachdb.training.patterns;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Registry of pre-compiled Jackson writers for event payloads, cached per payload type
+ * and shared by the outbox and inbox repositories. Writers never indent and serialize
+ * using Jackson's recycled buffers, either to JSON text or to compact CBOR bytes.
+ */
+@Component
+public class PayloadSerializer {
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper binaryMapper;
+
+    private final Map<Class<?>, ObjectWriter> jsonWriters = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ObjectWriter> binaryWriters = new ConcurrentHashMap<>();
+
+    public PayloadSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Same modules and features as the primary mapper
+        this.binaryMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    /**
+     * @param payload the payload
+     * @return compact JSON text
+     */
+    public String toJson(Object payload) {
+        try {
+            return jsonWriter(payload.getClass()).writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error serializing JSON payload", e);
+        }
+    }
+
+    /**
+     * @param payload the payload
+     * @return CBOR encoded bytes
+     */
+    public byte[] toBinary(Object payload) {
+        try {
+            return binaryWriter(payload.getClass()).writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error serializing binary payload", e);
+        }
+    }
+
+    private ObjectWriter jsonWriter(Class<?> type) {
+        return jsonWriters.computeIfAbsent(type, t -> objectMapper.writerFor(t)
+                .without(SerializationFeature.INDENT_OUTPUT));
+    }
+
+    private ObjectWriter binaryWriter(Class<?> type) {
+        return binaryWriters.computeIfAbsent(type, t -> binaryMapper.writerFor(t));
+    }
+}
@@ -0,0 +1,110 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import io.cockroachdb.training.common.annotation.ServiceFacade;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.patterns.BusinessException;
+import io.cockroachdb.training.patterns.PurchaseOrderEvent;
+
+/**
+ * Batch alternative to {@link InboxChangeFeedListener} that receives all records of
+ * a poll, keeps only the last event per aggregate ID and places the orders in chunked
+ * transactions. Offsets are acknowledged up to the end of each chunk once it commits,
+ * so a failure only redelivers the chunks not yet applied.
+ */
+@ServiceFacade
+public class InboxBatchChangeFeedListener {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private InboxBatchOrderService batchOrderService;
+
+    @Value("${training.inbox.batch.chunk-size:128}")
+    private int chunkSize;
+
+    public void setBatchOrderService(InboxBatchOrderService batchOrderService) {
+        this.batchOrderService = batchOrderService;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @KafkaListener(id = "inbox-batch-demo", topics = "orders-inbox", groupId = "training-modules",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${training.inbox.batch.enabled:false}",
+            properties = {"spring.json.value.default.type=io.cockroachdb.training.patterns.PurchaseOrderEvent"})
+    public void onPurchaseOrderEvents(List<ConsumerRecord<String, PurchaseOrderEvent>> records,
+                                      Acknowledgment acknowledgment) {
+        // Index of the last record per aggregate, earlier events are superseded
+        Map<UUID, Integer> lastIndex = new HashMap<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            lastIndex.put(aggregateIdOf(records.get(i).value()), i);
+        }
+
+        logger.info("Received {} event(s) for {} aggregate(s)", records.size(), lastIndex.size());
+
+        List<PurchaseOrder> chunk = new ArrayList<>(chunkSize);
+        int chunkStart = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            PurchaseOrderEvent event = records.get(i).value();
+            if (lastIndex.get(aggregateIdOf(event)) == i) {
+                chunk.add(event.getPayload());
+            }
+
+            if (chunk.size() == chunkSize || i == records.size() - 1) {
+                applyChunk(chunk, chunkStart);
+                acknowledgment.acknowledge(i);
+                chunk.clear();
+                chunkStart = i + 1;
+            }
+        }
+    }
+
+    private void applyChunk(List<PurchaseOrder> chunk, int chunkStart) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            int placed = batchOrderService.placeOrders(chunk);
+            logger.debug("Placed {} of {} order(s) in chunk", placed, chunk.size());
+        } catch (BusinessException e) {
+            // Isolate the offending order(s) by falling back to one transaction per order
+            logger.warn("Chunk of {} order(s) rejected, placing one by one: {}", chunk.size(), e.getMessage());
+            try {
+                chunk.forEach(order -> {
+                    try {
+                        batchOrderService.placeOrders(List.of(order));
+                    } catch (BusinessException ex) {
+                        logger.warn("Order {} rejected: {}", order.getId(), ex.getMessage());
+                    }
+                });
+            } catch (RuntimeException ex) {
+                // Orders placed before the failure are skipped on redelivery
+                throw new BatchListenerFailedException("Error applying chunk one by one", ex, chunkStart);
+            }
+        } catch (RuntimeException e) {
+            // Commits offsets before the chunk and redelivers the rest
+            throw new BatchListenerFailedException("Error applying chunk", e, chunkStart);
+        }
+    }
+
+    private static UUID aggregateIdOf(PurchaseOrderEvent event) {
+        return event.getAggregateId() != null ? event.getAggregateId() : event.getPayload().getId();
+    }
+}
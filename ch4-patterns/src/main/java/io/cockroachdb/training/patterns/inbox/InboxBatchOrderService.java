@@ -0,0 +1,87 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.retry.annotation.Retryable;
+
+import io.cockroachdb.training.common.annotation.ServiceFacade;
+import io.cockroachdb.training.common.annotation.TransactionExplicit;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+import io.cockroachdb.training.domain.repository.InventoryRepository;
+import io.cockroachdb.training.domain.repository.OrderBulkRepository;
+import io.cockroachdb.training.domain.repository.OrderRepository;
+import io.cockroachdb.training.domain.util.AssertUtils;
+import io.cockroachdb.training.patterns.BusinessException;
+
+/**
+ * Places a chunk of inbox orders in one transaction using a set-based inventory
+ * update and a bulk insert, skipping orders that are already placed so that
+ * redelivered events are applied at most once.
+ */
+@ServiceFacade
+public class InboxBatchOrderService {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderBulkRepository orderBulkRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    public void setOrderRepository(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    public void setOrderBulkRepository(OrderBulkRepository orderBulkRepository) {
+        this.orderBulkRepository = orderBulkRepository;
+    }
+
+    public void setInventoryRepository(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    /**
+     * @param orders orders with unique, non-null IDs
+     * @return number of orders placed, excluding already placed orders
+     */
+    @TransactionExplicit
+    @Retryable
+    public int placeOrders(Collection<PurchaseOrder> orders) throws BusinessException {
+        AssertUtils.assertReadWriteTransaction();
+
+        Set<UUID> existingIds = new HashSet<>(orderRepository.findExistingIds(
+                orders.stream().map(order -> Objects.requireNonNull(order.getId(), "order id is null"))
+                        .toList()));
+
+        List<PurchaseOrder> newOrders = orders.stream()
+                .filter(order -> !existingIds.contains(order.getId()))
+                .toList();
+
+        if (newOrders.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // Update product inventories for all line items in one statement
+            inventoryRepository.decrementInventory(newOrders);
+
+            newOrders.forEach(order -> {
+                order.setStatus(ShipmentStatus.placed);
+                order.setTotalPrice(order.subTotal());
+            });
+
+            return orderBulkRepository.insertOrders(newOrders);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException("Constraint violation", e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ public class InboxChangeFeedListener {
     private OrderService orderService;
 
     @KafkaListener(id = "inbox-demo", topics = "orders-inbox", groupId = "training-modules",
+            autoStartup = "#{!${training.inbox.batch.enabled:false} && !${training.inbox.parallel.enabled:false}}",
             properties = {"spring.json.value.default.type=io.cockroachdb.training.patterns.PurchaseOrderEvent"})
     public void onPurchaseOrderEvent(PurchaseOrderEvent event)
             throws JsonProcessingException {
@@ -8,11 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import jakarta.annotation.PostConstruct;
 
+import io.cockroachdb.training.patterns.PayloadSerializer;
+
 @Repository
 public class InboxJdbcRepository implements InboxRepository {
     private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -21,7 +20,7 @@ public class InboxJdbcRepository implements InboxRepository {
     private DataSource dataSource;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private PayloadSerializer payloadSerializer;
 
     private JdbcTemplate jdbcTemplate;
 
@@ -32,19 +31,15 @@ public class InboxJdbcRepository implements InboxRepository {
 
     @Override
     public void writeEvent(Object event, String aggregateType) {
-        try {
-            String json = objectMapper.writer().writeValueAsString(event);
-
-            logger.info("Writing inbox event: {}", json);
-
-            jdbcTemplate.update(
-                    "UPSERT INTO inbox (aggregate_type,payload) VALUES (?,?)",
-                    ps -> {
-                        ps.setString(1, aggregateType);
-                        ps.setObject(2, json);
-                    });
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error serializing outbox JSON payload", e);
-        }
+        String json = payloadSerializer.toJson(event);
+
+        logger.info("Writing inbox event: {}", json);
+
+        jdbcTemplate.update(
+                "UPSERT INTO inbox (aggregate_type,payload) VALUES (?,?)",
+                ps -> {
+                    ps.setString(1, aggregateType);
+                    ps.setObject(2, json);
+                });
     }
 }
@@ -0,0 +1,113 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import io.cockroachdb.training.common.annotation.ServiceFacade;
+import io.cockroachdb.training.patterns.BusinessException;
+import io.cockroachdb.training.patterns.PurchaseOrderEvent;
+
+/**
+ * Parallel alternative to {@link InboxChangeFeedListener} that fans out the records
+ * of a poll over virtual-thread lanes keyed by aggregate ID, so events for the same
+ * order are applied in order while different orders are applied concurrently.
+ * <p>
+ * Offsets are acknowledged as the contiguous prefix of completed records advances.
+ * If a record fails, later records with the same key are skipped and the batch is
+ * redelivered from the failed record once all lanes are idle. Orders are placed
+ * idempotently so records that completed after the failure are not applied twice.
+ */
+@ServiceFacade
+public class InboxParallelChangeFeedListener {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private InboxBatchOrderService batchOrderService;
+
+    @Value("${training.inbox.parallel.lanes:16}")
+    private int numLanes;
+
+    private KeyedDispatcher dispatcher;
+
+    @PostConstruct
+    public void init() {
+        this.dispatcher = new KeyedDispatcher("inbox", numLanes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.close();
+    }
+
+    @KafkaListener(id = "inbox-parallel-demo", topics = "orders-inbox", groupId = "training-modules",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${training.inbox.parallel.enabled:false}",
+            properties = {"spring.json.value.default.type=io.cockroachdb.training.patterns.PurchaseOrderEvent"})
+    public void onPurchaseOrderEvents(List<ConsumerRecord<String, PurchaseOrderEvent>> records,
+                                      Acknowledgment acknowledgment) throws InterruptedException {
+        OffsetWatermark watermark = new OffsetWatermark(records.size());
+        Set<UUID> failedKeys = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(records.size());
+
+        for (int i = 0; i < records.size(); i++) {
+            final int index = i;
+            final PurchaseOrderEvent event = records.get(i).value();
+            final UUID key = event.getAggregateId() != null
+                    ? event.getAggregateId() : event.getPayload().getId();
+
+            futures.add(dispatcher.dispatch(key, () -> {
+                if (failedKeys.contains(key)) {
+                    // Preserve per-key order by not applying past a failed event
+                    watermark.fail(index);
+                    return;
+                }
+                try {
+                    batchOrderService.placeOrders(List.of(event.getPayload()));
+                    watermark.complete(index);
+                } catch (BusinessException e) {
+                    logger.warn("Order {} rejected: {}", key, e.getMessage());
+                    watermark.complete(index);
+                } catch (Throwable e) {
+                    // Any failure must be recorded, or the watermark never advances past it
+                    logger.warn("Order {} failed: {}", key, e.toString());
+                    failedKeys.add(key);
+                    watermark.fail(index);
+                    if (e instanceof Error ex) {
+                        throw ex;
+                    }
+                }
+            }));
+        }
+
+        int acked = 0;
+        while (acked < records.size()) {
+            int next = watermark.awaitAdvance(acked);
+            if (next > acked) {
+                acknowledgment.acknowledge(next - 1);
+                acked = next;
+            } else if (watermark.isBlocked()) {
+                // Let in-flight records finish before redelivering from the failure
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+                throw new BatchListenerFailedException("Error applying event", acked);
+            }
+        }
+
+        logger.debug("Applied {} event(s) using {} lanes", records.size(), dispatcher.getNumLanes());
+    }
+}
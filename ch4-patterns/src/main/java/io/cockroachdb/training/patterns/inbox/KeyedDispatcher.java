@@ -0,0 +1,62 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Dispatches tasks to a fixed number of lanes, each lane being a single virtual thread.
+ * Tasks with the same key always go to the same lane and therefore run in submission
+ * order, while tasks with different keys run in parallel.
+ */
+public class KeyedDispatcher implements Closeable {
+    private final ExecutorService[] lanes;
+
+    public KeyedDispatcher(String name, int numLanes) {
+        Assert.isTrue(numLanes > 0, "numLanes must be > 0");
+        this.lanes = new ExecutorService[numLanes];
+        for (int i = 0; i < numLanes; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(
+                    Thread.ofVirtual().name(name + "-lane-" + i).factory());
+        }
+    }
+
+    public int getNumLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * @param key  the ordering key
+     * @param task the task to run after all previously dispatched tasks with the same key
+     * @return future completed when the task has run
+     */
+    public CompletableFuture<Void> dispatch(Object key, Runnable task) {
+        return CompletableFuture.runAsync(task, lanes[laneOf(key)]);
+    }
+
+    private int laneOf(Object key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            try {
+                if (!lane.awaitTermination(30, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks out-of-order completion of the records in a batch by index, and exposes the
+ * watermark as the number of records completed contiguously from the start. Offsets
+ * below the watermark are safe to commit. A failed record blocks the watermark.
+ */
+public class OffsetWatermark {
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition advanced = lock.newCondition();
+
+    private final BitSet completed;
+
+    private int watermark;
+
+    private int firstFailure = Integer.MAX_VALUE;
+
+    public OffsetWatermark(int size) {
+        this.completed = new BitSet(size);
+    }
+
+    public void complete(int index) {
+        lock.lock();
+        try {
+            completed.set(index);
+            int next = completed.nextClearBit(watermark);
+            if (next != watermark) {
+                watermark = next;
+                advanced.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void fail(int index) {
+        lock.lock();
+        try {
+            firstFailure = Math.min(firstFailure, index);
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the watermark advances past the given value or is blocked by a failure.
+     *
+     * @param current the last observed watermark
+     * @return the current watermark
+     */
+    public int awaitAdvance(int current) throws InterruptedException {
+        lock.lock();
+        try {
+            while (watermark <= current && firstFailure != watermark) {
+                advanced.await();
+            }
+            return watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the watermark is blocked by a failed record
+     */
+    public boolean isBlocked() {
+        lock.lock();
+        try {
+            return firstFailure == watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -16,10 +16,10 @@ import io.cockroachdb.training.common.aspect.AdvisorOrder;
 public class OutboxAspect {
     public static final int PRECEDENCE = AdvisorOrder.CHANGE_FEED_ADVISOR;
 
-    private final OutboxRepository outboxRepository;
+    private final OutboxBuffer outboxBuffer;
 
-    public OutboxAspect(OutboxRepository outboxRepository) {
-        this.outboxRepository = outboxRepository;
+    public OutboxAspect(OutboxBuffer outboxBuffer) {
+        this.outboxBuffer = outboxBuffer;
     }
 
     /**
@@ -35,7 +35,8 @@ public class OutboxAspect {
         Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
                 "Expected existing transaction - check advisor @Order");
 
-        outboxRepository.writeEvent(returnValue, outboxOperation.aggregateType());
+        // Written in one statement before commit
+        outboxBuffer.add(returnValue, outboxOperation.aggregateType());
     }
 }
 
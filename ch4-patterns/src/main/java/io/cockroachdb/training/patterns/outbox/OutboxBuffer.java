@@ -0,0 +1,115 @@
+package io.cockroachdb.training.patterns.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Transaction-bound buffer of outbox events, flushed in a single write just before
+ * the transaction commits. Events are serialized when added, so each payload reflects
+ * the state at the time of the operation rather than at commit. Events are discarded
+ * if the transaction rolls back, and a failed flush rolls back the transaction.
+ */
+@Component
+public class OutboxBuffer {
+    /**
+     * A serialized outbox event waiting to be written, with either a JSON or a binary payload.
+     */
+    public static class PendingEvent {
+        private final String aggregateType;
+
+        private final UUID id;
+
+        private final String json;
+
+        private final byte[] binary;
+
+        PendingEvent(String aggregateType, UUID id, String json, byte[] binary) {
+            this.aggregateType = aggregateType;
+            this.id = id;
+            this.json = json;
+            this.binary = binary;
+        }
+
+        public String getAggregateType() {
+            return aggregateType;
+        }
+
+        /**
+         * @return the aggregate ID for binary payloads, otherwise null (computed from the JSON)
+         */
+        public UUID getId() {
+            return id;
+        }
+
+        public String getJson() {
+            return json;
+        }
+
+        public byte[] getBinary() {
+            return binary;
+        }
+
+        public boolean isBinary() {
+            return binary != null;
+        }
+    }
+
+    private final OutboxRepository outboxRepository;
+
+    public OutboxBuffer(OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Add an event to the buffer of the current transaction.
+     *
+     * @param event         the event payload
+     * @param aggregateType the aggregate type
+     */
+    public void add(Object event, String aggregateType) {
+        Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Expected existing transaction - check advisor @Order");
+        currentEvents().add(outboxRepository.serializeEvent(event, aggregateType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingEvent> currentEvents() {
+        List<PendingEvent> events = (List<PendingEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            final List<PendingEvent> newEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, newEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(OutboxBuffer.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(OutboxBuffer.this, newEvents);
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!newEvents.isEmpty()) {
+                        outboxRepository.writeEvents(List.copyOf(newEvents));
+                        newEvents.clear();
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxBuffer.this);
+                }
+            });
+            events = newEvents;
+        }
+        return events;
+    }
+}
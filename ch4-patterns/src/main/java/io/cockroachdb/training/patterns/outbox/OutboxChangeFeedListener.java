@@ -19,7 +19,9 @@ public class OutboxChangeFeedListener {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @KafkaListener(id = "outbox-demo", topics = "orders-outbox", groupId = "training-modules",
+    // Shared outbox topic plus the topic of a dedicated purchase_order outbox table, if any
+    @KafkaListener(id = "outbox-demo", topics = "#{@outboxTableRegistry.getTopics('purchase_order')}",
+            groupId = "training-modules",
             properties = {"spring.json.value.default.type=io.cockroachdb.training.patterns.PurchaseOrderEvent"})
     public void onPurchaseOrderEvent(PurchaseOrderEvent event)
             throws JsonProcessingException {
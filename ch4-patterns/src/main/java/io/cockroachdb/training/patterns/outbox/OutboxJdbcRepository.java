@@ -1,5 +1,11 @@
 package io.cockroachdb.training.patterns.outbox;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
@@ -10,11 +16,11 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import jakarta.annotation.PostConstruct;
 
+import io.cockroachdb.training.domain.model.AbstractEntity;
+import io.cockroachdb.training.patterns.PayloadSerializer;
+
 @Repository
 public class OutboxJdbcRepository implements OutboxRepository {
     private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -23,7 +29,10 @@ public class OutboxJdbcRepository implements OutboxRepository {
     private DataSource dataSource;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private PayloadSerializer payloadSerializer;
+
+    @Autowired
+    private OutboxTableRegistry outboxTableRegistry;
 
     private JdbcTemplate jdbcTemplate;
 
@@ -34,22 +43,104 @@ public class OutboxJdbcRepository implements OutboxRepository {
 
     @Override
     public void writeEvent(Object event, String aggregateType) {
+        writeEvents(List.of(serializeEvent(event, aggregateType)));
+    }
+
+    @Override
+    public OutboxBuffer.PendingEvent serializeEvent(Object event, String aggregateType) {
+        if (outboxTableRegistry.isBinary(aggregateType)) {
+            UUID id = event instanceof AbstractEntity<?> entity && entity.getId() instanceof UUID entityId
+                    ? entityId : UUID.randomUUID();
+            return new OutboxBuffer.PendingEvent(aggregateType, id, null, payloadSerializer.toBinary(event));
+        }
+        return new OutboxBuffer.PendingEvent(aggregateType, null, payloadSerializer.toJson(event), null);
+    }
+
+    @Override
+    public void writeEvents(List<OutboxBuffer.PendingEvent> events) {
         Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
                 "Expected existing transaction - check advisor @Order");
 
-        try {
-            String json = objectMapper.writer().writeValueAsString(event);
+        // Route to the dedicated table of the aggregate type, the binary
+        // outbox or the shared outbox, in that order of precedence
+        Map<OutboxTable, List<OutboxBuffer.PendingEvent>> tableEvents = new LinkedHashMap<>();
+        List<OutboxBuffer.PendingEvent> jsonEvents = new ArrayList<>(events.size());
+        List<OutboxBuffer.PendingEvent> binaryEvents = new ArrayList<>();
+
+        events.forEach(event -> {
+            OutboxTable table = outboxTableRegistry.getTable(event.getAggregateType());
+            if (table != null) {
+                tableEvents.computeIfAbsent(table, t -> new ArrayList<>()).add(event);
+            } else if (event.isBinary()) {
+                binaryEvents.add(event);
+            } else {
+                jsonEvents.add(event);
+            }
+        });
+
+        tableEvents.forEach(this::writeTableEvents);
+
+        if (!jsonEvents.isEmpty()) {
+            writeJsonEvents(jsonEvents);
+        }
+        if (!binaryEvents.isEmpty()) {
+            writeBinaryEvents(binaryEvents);
+        }
+    }
+
+    private void writeTableEvents(OutboxTable table, List<OutboxBuffer.PendingEvent> events) {
+        String[] payloads = new String[events.size()];
+
+        for (int i = 0; i < events.size(); i++) {
+            payloads[i] = events.get(i).getJson();
+        }
+
+        logger.info("Writing {} outbox event(s) to {}", events.size(), table.getTableName());
+
+        jdbcTemplate.update(table.insertStatement(),
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("VARCHAR", payloads)));
+    }
+
+    private void writeJsonEvents(List<OutboxBuffer.PendingEvent> events) {
+        String[] aggregateTypes = new String[events.size()];
+        String[] payloads = new String[events.size()];
+
+        for (int i = 0; i < events.size(); i++) {
+            aggregateTypes[i] = events.get(i).getAggregateType();
+            payloads[i] = events.get(i).getJson();
+        }
+
+        logger.info("Writing {} outbox event(s)", events.size());
 
-            logger.info("Writing outbox event: {}", json);
+        jdbcTemplate.update(
+                "INSERT INTO outbox (aggregate_type,payload) "
+                + "select unnest(?) as aggregate_type, unnest(?::STRING[])::JSONB as payload",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("VARCHAR", aggregateTypes));
+                    ps.setArray(2, ps.getConnection().createArrayOf("VARCHAR", payloads));
+                });
+    }
+
+    private void writeBinaryEvents(List<OutboxBuffer.PendingEvent> events) {
+        UUID[] ids = new UUID[events.size()];
+        String[] aggregateTypes = new String[events.size()];
+        byte[][] payloads = new byte[events.size()][];
 
-            jdbcTemplate.update(
-                    "INSERT INTO outbox (aggregate_type,payload) VALUES (?,?)",
-                    ps -> {
-                        ps.setString(1, aggregateType);
-                        ps.setObject(2, json);
-                    });
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error serializing outbox JSON payload", e);
+        for (int i = 0; i < events.size(); i++) {
+            ids[i] = events.get(i).getId();
+            aggregateTypes[i] = events.get(i).getAggregateType();
+            payloads[i] = events.get(i).getBinary();
         }
+
+        logger.info("Writing {} binary outbox event(s)", events.size());
+
+        jdbcTemplate.update(
+                "INSERT INTO " + OutboxTableRegistry.BINARY_TABLE + " (id,aggregate_type,payload) "
+                + "select unnest(?) as id, unnest(?) as aggregate_type, unnest(?) as payload",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("UUID", ids));
+                    ps.setArray(2, ps.getConnection().createArrayOf("VARCHAR", aggregateTypes));
+                    ps.setArray(3, ps.getConnection().createArrayOf("BYTEA", payloads));
+                });
     }
 }
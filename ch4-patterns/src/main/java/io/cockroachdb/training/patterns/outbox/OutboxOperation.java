@@ -15,5 +15,8 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD})
 public @interface OutboxOperation {
+    /**
+     * @return the aggregate type, which also selects a dedicated outbox table if configured
+     */
     String aggregateType();
 }
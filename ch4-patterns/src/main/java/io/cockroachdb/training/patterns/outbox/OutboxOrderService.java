@@ -1,8 +1,10 @@
 package io.cockroachdb.training.patterns.outbox;
 
+import java.util.List;
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.retry.annotation.Retryable;
 
@@ -11,6 +13,8 @@ import io.cockroachdb.training.common.annotation.TransactionExplicit;
 import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
+import io.cockroachdb.training.domain.repository.InventoryRepository;
+import io.cockroachdb.training.domain.repository.InventoryUpdateStrategy;
 import io.cockroachdb.training.domain.repository.OrderRepository;
 import io.cockroachdb.training.domain.repository.ProductRepository;
 import io.cockroachdb.training.domain.util.AssertUtils;
@@ -25,6 +29,16 @@ public class OutboxOrderService implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Value("${training.inventory-update-strategy:ENTITY}")
+    private InventoryUpdateStrategy inventoryUpdateStrategy;
+
+    public void setInventoryUpdateStrategy(InventoryUpdateStrategy inventoryUpdateStrategy) {
+        this.inventoryUpdateStrategy = inventoryUpdateStrategy;
+    }
+
     @Override
     @TransactionExplicit
     @Retryable
@@ -33,12 +47,17 @@ public class OutboxOrderService implements OrderService {
         AssertUtils.assertReadWriteTransaction();
 
         try {
-            // Update product inventories for each line item
-            order.getOrderItems().forEach(orderItem -> {
-                Product product = productRepository.getReferenceById(
-                        Objects.requireNonNull(orderItem.getProduct().getId()));
-                product.addInventoryQuantity(-orderItem.getQuantity());
-            });
+            if (inventoryUpdateStrategy == InventoryUpdateStrategy.SET_BASED) {
+                // Update product inventories for all line items in one statement
+                inventoryRepository.decrementInventory(List.of(order));
+            } else {
+                // Update product inventories for each line item
+                order.getOrderItems().forEach(orderItem -> {
+                    Product product = productRepository.getReferenceById(
+                            Objects.requireNonNull(orderItem.getProduct().getId()));
+                    product.addInventoryQuantity(-orderItem.getQuantity());
+                });
+            }
 
             order.setStatus(ShipmentStatus.placed);
             order.setTotalPrice(order.subTotal());
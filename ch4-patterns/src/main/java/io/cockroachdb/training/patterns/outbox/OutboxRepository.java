@@ -1,5 +1,24 @@
 package io.cockroachdb.training.patterns.outbox;
 
+import java.util.List;
+
 public interface OutboxRepository {
     void writeEvent(Object event, String aggregateType);
+
+    /**
+     * Serialize an event for a later write, in the payload format of its target table.
+     *
+     * @param event         the event payload
+     * @param aggregateType the aggregate type
+     * @return the serialized event
+     */
+    OutboxBuffer.PendingEvent serializeEvent(Object event, String aggregateType);
+
+    /**
+     * Write events of possibly different aggregate types using one statement per
+     * outbox table.
+     *
+     * @param events the events to write
+     */
+    void writeEvents(List<OutboxBuffer.PendingEvent> events);
 }
@@ -0,0 +1,75 @@
+package io.cockroachdb.training.patterns.outbox;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of dedicated outbox tables, keyed by aggregate type. Aggregate types
+ * without a dedicated table are written to the shared outbox table.
+ */
+@ConfigurationProperties("training.outbox")
+public class OutboxTableProperties {
+    public static class Table {
+        private String tableName;
+
+        private String topic;
+
+        private boolean hashSharded;
+
+        private int bucketCount;
+
+        private boolean changefeed = true;
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public void setTableName(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public boolean isHashSharded() {
+            return hashSharded;
+        }
+
+        public void setHashSharded(boolean hashSharded) {
+            this.hashSharded = hashSharded;
+        }
+
+        public int getBucketCount() {
+            return bucketCount;
+        }
+
+        public void setBucketCount(int bucketCount) {
+            this.bucketCount = bucketCount;
+        }
+
+        public boolean isChangefeed() {
+            return changefeed;
+        }
+
+        public void setChangefeed(boolean changefeed) {
+            this.changefeed = changefeed;
+        }
+    }
+
+    private Map<String, Table> tables = new LinkedHashMap<>();
+
+    public Map<String, Table> getTables() {
+        return tables;
+    }
+
+    public void setTables(Map<String, Table> tables) {
+        this.tables = tables;
+    }
+}
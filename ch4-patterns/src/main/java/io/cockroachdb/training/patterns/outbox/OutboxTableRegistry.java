@@ -0,0 +1,155 @@
+package io.cockroachdb.training.patterns.outbox;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Registry of dedicated per-aggregate outbox tables. Creates the configured tables and
+ * their changefeeds on startup (after Flyway migrations) unless they already exist,
+ * and resolves the table for a given aggregate type.
+ * <p>
+ * The binary outbox table for CBOR payloads and its changefeed are only created if
+ * any aggregate types are configured in {@code training.outbox.binary-aggregate-types}.
+ * There's no listener for the binary topic in this module, the payloads are meant for
+ * consumers decoding CBOR.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class OutboxTableRegistry {
+    /**
+     * Topic of the changefeed on the shared outbox table.
+     */
+    public static final String SHARED_TOPIC = "orders-outbox";
+
+    /**
+     * Topic of the changefeed on the binary outbox table.
+     */
+    public static final String BINARY_TOPIC = "orders-outbox-binary";
+
+    public static final String BINARY_TABLE = "outbox_binary";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final DataSource dataSource;
+
+    private final Map<String, OutboxTable> tables = new LinkedHashMap<>();
+
+    @Value("${spring.flyway.placeholders.cdc-sink-url:kafka://localhost:9092}")
+    private String sinkUrl;
+
+    // Aggregate types written as CBOR to the binary outbox table
+    @Value("${training.outbox.binary-aggregate-types:}")
+    private Set<String> binaryAggregateTypes;
+
+    public OutboxTableRegistry(DataSource dataSource, OutboxTableProperties properties) {
+        this.dataSource = dataSource;
+        properties.getTables().forEach((aggregateType, table) ->
+                tables.put(aggregateType, OutboxTable.of(aggregateType, table)));
+    }
+
+    @PostConstruct
+    public void init() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        tables.values().forEach(table -> {
+            logger.info("Creating outbox table (if not exists): {}", table);
+
+            jdbcTemplate.execute(table.createTableStatement());
+            jdbcTemplate.execute(table.alterTableTtlStatement());
+
+            if (table.isChangefeed() && !hasChangefeed(jdbcTemplate, table.getTableName())) {
+                logger.info("Creating changefeed for outbox table {} to topic {}",
+                        table.getTableName(), table.getTopic());
+                jdbcTemplate.execute(table.createChangefeedStatement(sinkUrl));
+            }
+        });
+
+        if (!binaryAggregateTypes.isEmpty()) {
+            logger.info("Creating binary outbox table (if not exists) for aggregate types: {}",
+                    binaryAggregateTypes);
+
+            // The aggregate ID can't be computed from a binary payload, so it's written by the application
+            jdbcTemplate.execute("create table if not exists " + BINARY_TABLE + " ("
+                                 + "id uuid not null, "
+                                 + "aggregate_type varchar(32) not null, "
+                                 + "payload bytes not null, "
+                                 + "primary key (id))");
+            jdbcTemplate.execute("alter table " + BINARY_TABLE + " set (ttl_expire_after = '1 hour')");
+
+            if (!hasChangefeed(jdbcTemplate, BINARY_TABLE)) {
+                logger.info("Creating changefeed for outbox table {} to topic {}", BINARY_TABLE, BINARY_TOPIC);
+                jdbcTemplate.execute("create changefeed into '" + sinkUrl + "?topic_name=" + BINARY_TOPIC + "' "
+                                     + "with diff as "
+                                     + "select id as aggregate_id, "
+                                     + "aggregate_type as aggregate_type, "
+                                     + "event_op() as event_type, "
+                                     + "payload "
+                                     + "from " + BINARY_TABLE + " "
+                                     + "where event_op() != 'delete'");
+            }
+        }
+    }
+
+    private boolean hasChangefeed(JdbcTemplate jdbcTemplate, String tableName) {
+        // Match on the watched table rather than the sink URI, since
+        // several changefeeds may share a topic
+        Integer jobs = jdbcTemplate.queryForObject(
+                "select count(1) from [show changefeed jobs] "
+                + "where status in ('running','paused','pending') "
+                + "and (current_database() || '.public.' || ?::STRING) = any (full_table_names)",
+                Integer.class,
+                tableName);
+        return jobs != null && jobs > 0;
+    }
+
+    /**
+     * @param aggregateType the aggregate type
+     * @return the dedicated outbox table or null if the shared outbox table is used
+     */
+    public OutboxTable getTable(String aggregateType) {
+        return tables.get(aggregateType);
+    }
+
+    /**
+     * @param aggregateType the aggregate type
+     * @return topics carrying events of the given aggregate type, for use in listener
+     * subscriptions
+     */
+    public String[] getTopics(String aggregateType) {
+        Set<String> topics = new LinkedHashSet<>();
+        topics.add(SHARED_TOPIC);
+        OutboxTable table = tables.get(aggregateType);
+        if (table != null && table.isChangefeed()) {
+            topics.add(table.getTopic());
+        }
+        return topics.toArray(new String[0]);
+    }
+
+    /**
+     * @param aggregateType the aggregate type
+     * @return true if events of the given aggregate type are written as CBOR to the binary
+     * outbox table, which only applies if there's no dedicated table
+     */
+    public boolean isBinary(String aggregateType) {
+        return !tables.containsKey(aggregateType) && binaryAggregateTypes.contains(aggregateType);
+    }
+
+    public Collection<OutboxTable> getTables() {
+        return Collections.unmodifiableCollection(tables.values());
+    }
+}
@@ -0,0 +1,160 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.patterns.BusinessException;
+import io.cockroachdb.training.patterns.PurchaseOrderEvent;
+
+@Tag("unit-test")
+public class InboxBatchChangeFeedListenerTest {
+    private final List<List<PurchaseOrder>> placedChunks = new ArrayList<>();
+
+    private final List<Integer> acknowledged = new ArrayList<>();
+
+    private final Acknowledgment acknowledgment = new Acknowledgment() {
+        @Override
+        public void acknowledge() {
+            throw new UnsupportedOperationException("Expected partial acknowledgment");
+        }
+
+        @Override
+        public void acknowledge(int index) {
+            acknowledged.add(index);
+        }
+    };
+
+    private static PurchaseOrder newOrder(UUID id, int quantity) {
+        return PurchaseOrder.builder()
+                .withId(id)
+                .withCustomer(Customer.builder().withGeneratedId().build())
+                .andOrderItem()
+                .withProductId(UUID.randomUUID())
+                .withUnitPrice(BigDecimal.TEN)
+                .withQuantity(quantity)
+                .then()
+                .build();
+    }
+
+    private static List<ConsumerRecord<String, PurchaseOrderEvent>> recordsOf(List<PurchaseOrder> orders) {
+        List<ConsumerRecord<String, PurchaseOrderEvent>> records = new ArrayList<>();
+        for (PurchaseOrder order : orders) {
+            PurchaseOrderEvent event = new PurchaseOrderEvent();
+            event.setPayload(order);
+            records.add(new ConsumerRecord<>("orders-inbox", 0, records.size(), order.getId().toString(), event));
+        }
+        return records;
+    }
+
+    private static List<PurchaseOrder> newOrders(int count) {
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(newOrder(UUID.randomUUID(), 1));
+        }
+        return orders;
+    }
+
+    /**
+     * @param onPlace invoked with each chunk before it's recorded as placed, throw to fail it
+     */
+    private InboxBatchChangeFeedListener newListener(int chunkSize, Consumer<List<PurchaseOrder>> onPlace) {
+        InboxBatchChangeFeedListener listener = new InboxBatchChangeFeedListener();
+        listener.setChunkSize(chunkSize);
+        listener.setBatchOrderService(new InboxBatchOrderService() {
+            @Override
+            public int placeOrders(Collection<PurchaseOrder> orders) {
+                List<PurchaseOrder> chunk = List.copyOf(orders);
+                onPlace.accept(chunk);
+                placedChunks.add(chunk);
+                return chunk.size();
+            }
+        });
+        return listener;
+    }
+
+    @Test
+    public void whenSameAggregateRepeated_thenPlaceLastEventOnly() {
+        UUID id = UUID.randomUUID();
+        PurchaseOrder first = newOrder(id, 1);
+        PurchaseOrder other = newOrder(UUID.randomUUID(), 1);
+        PurchaseOrder last = newOrder(id, 2);
+
+        newListener(10, chunk -> {
+        }).onPurchaseOrderEvents(recordsOf(List.of(first, other, last)), acknowledgment);
+
+        Assertions.assertEquals(1, placedChunks.size());
+        Assertions.assertEquals(2, placedChunks.get(0).size());
+        Assertions.assertSame(other, placedChunks.get(0).get(0));
+        Assertions.assertSame(last, placedChunks.get(0).get(1));
+        Assertions.assertEquals(List.of(2), acknowledged);
+    }
+
+    @Test
+    public void whenChunkFails_thenAcknowledgeAppliedChunksAndFailAtChunkStart() {
+        List<PurchaseOrder> orders = newOrders(5);
+
+        InboxBatchChangeFeedListener listener = newListener(2, chunk -> {
+            if (chunk.contains(orders.get(2))) {
+                throw new IllegalStateException("Disconnected");
+            }
+        });
+
+        BatchListenerFailedException ex = Assertions.assertThrows(BatchListenerFailedException.class,
+                () -> listener.onPurchaseOrderEvents(recordsOf(orders), acknowledgment));
+
+        Assertions.assertEquals(2, ex.getIndex());
+        Assertions.assertEquals(List.of(1), acknowledged);
+        Assertions.assertEquals(List.of(orders.subList(0, 2)), placedChunks);
+    }
+
+    @Test
+    public void whenOrderRejected_thenPlaceRemainingOneByOne() {
+        List<PurchaseOrder> orders = newOrders(4);
+
+        InboxBatchChangeFeedListener listener = newListener(2, chunk -> {
+            if (chunk.contains(orders.get(2))) {
+                throw new BusinessException("Constraint violation");
+            }
+        });
+
+        listener.onPurchaseOrderEvents(recordsOf(orders), acknowledgment);
+
+        Assertions.assertEquals(List.of(1, 3), acknowledged);
+        Assertions.assertEquals(List.of(orders.subList(0, 2), List.of(orders.get(3))), placedChunks);
+    }
+
+    @Test
+    public void whenFallbackFails_thenFailAtChunkStart() {
+        List<PurchaseOrder> orders = newOrders(4);
+
+        InboxBatchChangeFeedListener listener = newListener(2, chunk -> {
+            if (chunk.size() > 1 && chunk.contains(orders.get(2))) {
+                throw new BusinessException("Constraint violation");
+            }
+            if (chunk.equals(List.of(orders.get(3)))) {
+                throw new IllegalStateException("Disconnected");
+            }
+        });
+
+        BatchListenerFailedException ex = Assertions.assertThrows(BatchListenerFailedException.class,
+                () -> listener.onPurchaseOrderEvents(recordsOf(orders), acknowledgment));
+
+        Assertions.assertEquals(2, ex.getIndex());
+        Assertions.assertInstanceOf(IllegalStateException.class, ex.getCause());
+        Assertions.assertEquals(List.of(1), acknowledged);
+        Assertions.assertEquals(List.of(orders.subList(0, 2), List.of(orders.get(2))), placedChunks);
+    }
+}
@@ -0,0 +1,119 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+import io.cockroachdb.training.domain.repository.OrderRepository;
+import io.cockroachdb.training.patterns.BusinessException;
+
+@Tag("unit-test")
+public class InboxBatchOrderServiceTest {
+    private final List<Map<UUID, Integer>> inventoryUpdates = new ArrayList<>();
+
+    private final List<PurchaseOrder> insertedOrders = new ArrayList<>();
+
+    private final InboxBatchOrderService orderService = new InboxBatchOrderService();
+
+    private static PurchaseOrder newOrder(UUID productId, int quantity) {
+        return PurchaseOrder.builder()
+                .withGeneratedId()
+                .withCustomer(Customer.builder().withGeneratedId().build())
+                .andOrderItem()
+                .withProductId(productId)
+                .withUnitPrice(BigDecimal.TEN)
+                .withQuantity(quantity)
+                .then()
+                .build();
+    }
+
+    private static OrderRepository orderRepositoryWithExisting(Set<UUID> existingIds) {
+        return (OrderRepository) Proxy.newProxyInstance(InboxBatchOrderServiceTest.class.getClassLoader(),
+                new Class[] {OrderRepository.class}, (proxy, method, args) -> {
+                    if ("findExistingIds".equals(method.getName())) {
+                        @SuppressWarnings("unchecked")
+                        Collection<UUID> ids = (Collection<UUID>) args[0];
+                        return ids.stream().filter(existingIds::contains).toList();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        // Stand-in for the transaction advisor
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        orderService.setInventoryRepository(deltas -> {
+            inventoryUpdates.add(Map.copyOf(deltas));
+            return deltas.size();
+        });
+        orderService.setOrderBulkRepository(orders -> {
+            insertedOrders.addAll(orders);
+            return orders.size();
+        });
+    }
+
+    @AfterEach
+    public void teardownTest() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void whenSomeOrdersExist_thenPlaceNewOrdersOnly() {
+        UUID productId = UUID.randomUUID();
+        PurchaseOrder existing = newOrder(productId, 1);
+        PurchaseOrder o1 = newOrder(productId, 2);
+        PurchaseOrder o2 = newOrder(productId, 3);
+
+        orderService.setOrderRepository(orderRepositoryWithExisting(Set.of(existing.getId())));
+
+        Assertions.assertEquals(2, orderService.placeOrders(List.of(o1, existing, o2)));
+
+        Assertions.assertEquals(List.of(o1, o2), insertedOrders);
+        Assertions.assertEquals(List.of(Map.of(productId, -5)), inventoryUpdates);
+        Assertions.assertEquals(ShipmentStatus.placed, o1.getStatus());
+        Assertions.assertEquals(new BigDecimal("20"), o1.getTotalPrice());
+    }
+
+    @Test
+    public void whenAllOrdersExist_thenPlaceNothing() {
+        PurchaseOrder o1 = newOrder(UUID.randomUUID(), 1);
+        PurchaseOrder o2 = newOrder(UUID.randomUUID(), 1);
+
+        orderService.setOrderRepository(orderRepositoryWithExisting(Set.of(o1.getId(), o2.getId())));
+
+        Assertions.assertEquals(0, orderService.placeOrders(List.of(o1, o2)));
+
+        Assertions.assertTrue(insertedOrders.isEmpty());
+        Assertions.assertTrue(inventoryUpdates.isEmpty());
+    }
+
+    @Test
+    public void whenConstraintViolated_thenThrowBusinessException() {
+        orderService.setOrderRepository(orderRepositoryWithExisting(Set.of()));
+        orderService.setInventoryRepository(deltas -> {
+            throw new DataIntegrityViolationException("check_product_positive_inventory");
+        });
+
+        Assertions.assertThrows(BusinessException.class,
+                () -> orderService.placeOrders(List.of(newOrder(UUID.randomUUID(), 1))));
+        Assertions.assertTrue(insertedOrders.isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class KeyedDispatcherTest {
+    @Test
+    public void whenDispatchingSameKey_thenRunInSubmissionOrder() {
+        Map<Integer, List<Integer>> executed = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        try (KeyedDispatcher dispatcher = new KeyedDispatcher("test", 4)) {
+            for (int i = 0; i < 1000; i++) {
+                final int key = i % 10;
+                final int seq = i;
+                futures.add(dispatcher.dispatch(key, () -> executed
+                        .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(seq)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        Assertions.assertEquals(10, executed.size());
+        executed.values().forEach(seqs -> {
+            Assertions.assertEquals(100, seqs.size());
+            Assertions.assertEquals(seqs.stream().sorted().toList(), seqs);
+        });
+    }
+
+    @Test
+    public void whenDispatchingDifferentLanes_thenRunConcurrently() throws Exception {
+        try (KeyedDispatcher dispatcher = new KeyedDispatcher("test", 2)) {
+            // Find two keys mapped to different lanes by blocking on the first
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Void> blocked = dispatcher.dispatch(0, () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            boolean ranConcurrently = false;
+            for (int key = 1; key < 100 && !ranConcurrently; key++) {
+                CompletableFuture<Void> other = dispatcher.dispatch(key, () -> {
+                });
+                try {
+                    other.get(200, TimeUnit.MILLISECONDS);
+                    ranConcurrently = true;
+                } catch (TimeoutException e) {
+                    // same lane as the blocked task
+                }
+            }
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(ranConcurrently);
+        }
+    }
+
+    @Test
+    public void whenTaskFails_thenCompleteExceptionallyAndKeepLane() throws Exception {
+        try (KeyedDispatcher dispatcher = new KeyedDispatcher("test", 1)) {
+            CompletableFuture<Void> failed = dispatcher.dispatch("a", () -> {
+                throw new IllegalStateException("disk full");
+            });
+            CompletableFuture<Void> next = dispatcher.dispatch("a", () -> {
+            });
+
+            Assertions.assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+            next.get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(failed.isCompletedExceptionally());
+        }
+    }
+}
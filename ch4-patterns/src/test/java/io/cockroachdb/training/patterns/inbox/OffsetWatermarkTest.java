@@ -0,0 +1,71 @@
+package io.cockroachdb.training.patterns.inbox;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class OffsetWatermarkTest {
+    @Test
+    public void whenCompletingOutOfOrder_thenAdvanceContiguousPrefix() throws Exception {
+        OffsetWatermark watermark = new OffsetWatermark(4);
+
+        watermark.complete(1);
+        watermark.complete(3);
+        Assertions.assertFalse(watermark.isBlocked());
+
+        watermark.complete(0);
+        Assertions.assertEquals(2, watermark.awaitAdvance(0));
+
+        watermark.complete(2);
+        Assertions.assertEquals(4, watermark.awaitAdvance(2));
+    }
+
+    @Test
+    public void whenRecordFails_thenBlockWatermark() throws Exception {
+        OffsetWatermark watermark = new OffsetWatermark(3);
+
+        watermark.complete(0);
+        watermark.fail(1);
+        watermark.complete(2);
+
+        Assertions.assertEquals(1, watermark.awaitAdvance(0));
+        Assertions.assertTrue(watermark.isBlocked());
+        Assertions.assertEquals(1, watermark.awaitAdvance(1));
+    }
+
+    @Test
+    public void whenFailureAheadOfWatermark_thenNotBlockedUntilReached() throws Exception {
+        OffsetWatermark watermark = new OffsetWatermark(3);
+
+        watermark.fail(2);
+        Assertions.assertFalse(watermark.isBlocked());
+
+        watermark.complete(0);
+        watermark.complete(1);
+        Assertions.assertEquals(2, watermark.awaitAdvance(0));
+        Assertions.assertTrue(watermark.isBlocked());
+    }
+
+    @Test
+    public void whenWaiting_thenWakeUpOnCompletion() throws Exception {
+        OffsetWatermark watermark = new OffsetWatermark(2);
+
+        CompletableFuture<Integer> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return watermark.awaitAdvance(0);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertFalse(waiter.isDone());
+
+        watermark.complete(0);
+        Assertions.assertEquals(1, waiter.get(5, TimeUnit.SECONDS));
+    }
+}
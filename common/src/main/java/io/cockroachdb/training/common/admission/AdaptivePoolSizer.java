@@ -0,0 +1,135 @@
+package io.cockroachdb.training.common.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Periodically grows or shrinks the connection pool and admission limit based on the
+ * measured admission wait time. The pool grows by a step when the average wait of
+ * admitted callers in the last interval exceeds the target or any caller timed out,
+ * and shrinks by one connection when callers are admitted without waiting, no one is
+ * queued and less than half the pool is in use.
+ * <p>
+ * The upper bound is derived from the cluster vCPU count, since going beyond a few
+ * active connections per vCPU only adds contention on the cluster side.
+ */
+public class AdaptivePoolSizer {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final HikariDataSource dataSource;
+
+    private final AdmissionController admissionController;
+
+    private final int minPoolSize;
+
+    private final int maxPoolSize;
+
+    private final Duration targetWaitTime;
+
+    private final Duration interval;
+
+    private ScheduledExecutorService executorService;
+
+    private long lastAdmitted;
+
+    private long lastRejected;
+
+    private Duration lastWaitTime = Duration.ZERO;
+
+    /**
+     * @param dataSource          the pool to resize
+     * @param admissionController the admission controller to resize along with the pool
+     * @param minPoolSize         lower bound for the pool size
+     * @param clusterVCPUs        total number of vCPUs in the cluster
+     * @param connectionsPerVCPU  upper bound of connections per cluster vCPU
+     * @param targetWaitTime      average admission wait time to stay below
+     * @param interval            time between resizing
+     */
+    public AdaptivePoolSizer(HikariDataSource dataSource,
+                             AdmissionController admissionController,
+                             int minPoolSize,
+                             int clusterVCPUs,
+                             int connectionsPerVCPU,
+                             Duration targetWaitTime,
+                             Duration interval) {
+        Assert.isTrue(minPoolSize > 0, "minPoolSize must be > 0");
+        this.dataSource = dataSource;
+        this.admissionController = admissionController;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = Math.max(minPoolSize, clusterVCPUs * connectionsPerVCPU);
+        this.targetWaitTime = targetWaitTime;
+        this.interval = interval;
+    }
+
+    public void start() {
+        this.executorService = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("adaptive-pool-sizer")
+                .daemon(true)
+                .factory());
+        this.executorService.scheduleWithFixedDelay(this::resize,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    void resize() {
+        try {
+            long admitted = admissionController.getAdmitted();
+            long rejected = admissionController.getRejected();
+            Duration waitTime = admissionController.getWaitTime();
+
+            long calls = admitted - lastAdmitted;
+            long rejections = rejected - lastRejected;
+            Duration wait = waitTime.minus(lastWaitTime);
+
+            this.lastAdmitted = admitted;
+            this.lastRejected = rejected;
+            this.lastWaitTime = waitTime;
+
+            if (calls == 0 && rejections == 0 && admissionController.getQueueLength() == 0) {
+                return;
+            }
+
+            // Rejected callers waited the full timeout, so only admitted callers are averaged
+            Duration averageWait = calls > 0 ? wait.dividedBy(calls) : interval;
+
+            int current = dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+            int next = current;
+
+            if (rejections > 0 || averageWait.compareTo(targetWaitTime) > 0) {
+                // Grow by 25% with at least one connection
+                next = Math.min(maxPoolSize, current + Math.max(1, current / 4));
+            } else if (averageWait.compareTo(targetWaitTime.dividedBy(4)) < 0
+                       && admissionController.getQueueLength() == 0
+                       && dataSource.getHikariPoolMXBean().getActiveConnections() < current / 2) {
+                next = Math.max(minPoolSize, current - 1);
+            }
+
+            if (next != current) {
+                logger.debug("Resizing pool from {} to {} connections (avg admission wait {})",
+                        current, next, averageWait);
+                if (next > current) {
+                    dataSource.getHikariConfigMXBean().setMaximumPoolSize(next);
+                    admissionController.setLimit(next);
+                } else {
+                    admissionController.setLimit(next);
+                    dataSource.getHikariConfigMXBean().setMaximumPoolSize(next);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Unable to resize pool", e);
+        }
+    }
+}
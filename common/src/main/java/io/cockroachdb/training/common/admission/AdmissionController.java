@@ -0,0 +1,179 @@
+package io.cockroachdb.training.common.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Limits the number of concurrent callers to the number of available pool connections,
+ * using a fair semaphore so that callers are admitted in arrival order. This avoids piling
+ * up large numbers of (virtual) threads on the pool connection timeout, and lets callers
+ * queue with a bounded wait instead.
+ * <p>
+ * Admission is reentrant per thread, so nested calls don't acquire more permits.
+ */
+public class AdmissionController implements MeterBinder {
+    private static class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    private final ResizableSemaphore semaphore;
+
+    private final Duration timeout;
+
+    private final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder admittedWaitTimeNanos = new LongAdder();
+
+    private final LongAdder rejectedWaitTimeNanos = new LongAdder();
+
+    private volatile int limit;
+
+    /**
+     * @param limit   the initial number of concurrent callers
+     * @param timeout max time to wait for admission
+     */
+    public AdmissionController(int limit, Duration timeout) {
+        Assert.isTrue(limit > 0, "limit must be > 0");
+        this.semaphore = new ResizableSemaphore(limit);
+        this.limit = limit;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Acquire admission for the current thread, waiting up to the timeout.
+     *
+     * @throws CannotGetJdbcConnectionException on timeout or interrupt
+     */
+    public void acquire() {
+        int current = depth.get();
+        if (current > 0) {
+            depth.set(current + 1);
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        try {
+            if (!semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                reject(startTime);
+                throw new CannotGetJdbcConnectionException(
+                        "Admission timeout after " + timeout + " with " + semaphore.getQueueLength()
+                        + " callers waiting for " + limit + " connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(startTime);
+            throw new CannotGetJdbcConnectionException("Interrupted while waiting for admission");
+        }
+
+        admittedWaitTimeNanos.add(System.nanoTime() - startTime);
+        admitted.increment();
+        depth.set(1);
+    }
+
+    private void reject(long startTime) {
+        rejectedWaitTimeNanos.add(System.nanoTime() - startTime);
+        rejected.increment();
+    }
+
+    /**
+     * Release admission for the current thread.
+     */
+    public void release() {
+        int current = depth.get();
+        Assert.state(current > 0, "Not admitted");
+        if (current > 1) {
+            depth.set(current - 1);
+        } else {
+            depth.remove();
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Change the number of concurrent callers. Callers already admitted above
+     * a reduced limit keep their admission until released.
+     *
+     * @param newLimit the new limit
+     */
+    public synchronized void setLimit(int newLimit) {
+        Assert.isTrue(newLimit > 0, "limit must be > 0");
+        int delta = newLimit - limit;
+        if (delta > 0) {
+            semaphore.release(delta);
+        } else if (delta < 0) {
+            semaphore.reducePermits(-delta);
+        }
+        this.limit = newLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * @return accumulated wait time of admitted callers
+     */
+    public Duration getWaitTime() {
+        return Duration.ofNanos(admittedWaitTimeNanos.sum());
+    }
+
+    /**
+     * @return accumulated wait time of callers rejected on timeout or interrupt
+     */
+    public Duration getRejectedWaitTime() {
+        return Duration.ofNanos(rejectedWaitTimeNanos.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admission.limit", this, AdmissionController::getLimit)
+                .description("Max number of concurrent admitted callers")
+                .register(registry);
+        Gauge.builder("admission.queue", this, AdmissionController::getQueueLength)
+                .description("Number of callers waiting for admission")
+                .register(registry);
+        FunctionCounter.builder("admission.admitted", this, AdmissionController::getAdmitted)
+                .description("Number of callers admitted")
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", this, AdmissionController::getRejected)
+                .description("Number of callers rejected on admission timeout")
+                .register(registry);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides admission control limiting concurrent transactional work to available pool connections.
+ */
+package io.cockroachdb.training.common.admission;
@@ -25,6 +25,11 @@ public @interface Retryable {
      */
     int retryAttempts() default 10;
 
+    /**
+     * @return base backoff time in millis, interpreted by the backoff strategy
+     */
+    long baseBackoff() default 25;
+
     /**
      * @return max backoff time in millis
      */
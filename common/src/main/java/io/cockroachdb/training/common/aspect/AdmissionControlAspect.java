@@ -0,0 +1,58 @@
+package io.cockroachdb.training.common.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.Assert;
+
+import io.cockroachdb.training.common.admission.AdmissionController;
+import io.cockroachdb.training.common.annotation.TransactionExplicit;
+import io.cockroachdb.training.common.annotation.TransactionImplicit;
+
+/**
+ * AOP aspect that admits transactional work through an {@link AdmissionController}
+ * before a connection is acquired.
+ * <p>
+ * This advice must be applied after the retry advice, so that callers don't hold
+ * admission during backoff, and before the Spring transaction advisor in the call chain.
+ */
+@Aspect
+@Order(AdmissionControlAspect.PRECEDENCE)
+public class AdmissionControlAspect {
+    /**
+     * The precedence at which this advice is ordered by which also controls
+     * the order it is invoked in the call chain between a source and target.
+     */
+    public static final int PRECEDENCE = AdvisorOrder.ADMISSION_CONTROL_ADVISOR;
+
+    private final AdmissionController admissionController;
+
+    public AdmissionControlAspect(AdmissionController admissionController) {
+        Assert.notNull(admissionController, "admissionController is null");
+        this.admissionController = admissionController;
+    }
+
+    @Around(value = "Pointcuts.anyExplicitTransactionBoundary(transactionExplicit)",
+            argNames = "pjp,transactionExplicit")
+    public Object doInTransaction(ProceedingJoinPoint pjp, TransactionExplicit transactionExplicit)
+            throws Throwable {
+        return proceedAdmitted(pjp);
+    }
+
+    @Around(value = "Pointcuts.anyImplicitTransactionOperation(transactionImplicit)",
+            argNames = "pjp,transactionImplicit")
+    public Object doOutsideTransaction(ProceedingJoinPoint pjp, TransactionImplicit transactionImplicit)
+            throws Throwable {
+        return proceedAdmitted(pjp);
+    }
+
+    private Object proceedAdmitted(ProceedingJoinPoint pjp) throws Throwable {
+        admissionController.acquire();
+        try {
+            return pjp.proceed();
+        } finally {
+            admissionController.release();
+        }
+    }
+}
@@ -11,7 +11,12 @@ public interface AdvisorOrder {
     /**
      * Retry advice should have top priority, before any transaction is created.
      */
-    int TRANSACTION_RETRY_ADVISOR = Ordered.LOWEST_PRECEDENCE - 5;
+    int TRANSACTION_RETRY_ADVISOR = Ordered.LOWEST_PRECEDENCE - 6;
+
+    /**
+     * Admission control advice must come after retries and before a connection is acquired.
+     */
+    int ADMISSION_CONTROL_ADVISOR = Ordered.LOWEST_PRECEDENCE - 5;
 
     /**
      * Transaction manager advice must come after any retry advisor.
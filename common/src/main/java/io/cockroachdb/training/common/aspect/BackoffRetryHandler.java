@@ -2,16 +2,32 @@ package io.cockroachdb.training.common.aspect;
 
 import java.sql.SQLException;
 import java.time.Duration;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.Signature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ExponentialBackoffRetryHandler implements RetryHandler {
+import io.cockroachdb.training.common.backoff.BackoffStrategy;
+import io.cockroachdb.training.common.backoff.DecorrelatedJitterBackoffStrategy;
+
+/**
+ * Retry handler for SQL state 40001 that sleeps between retries using a pluggable
+ * {@link BackoffStrategy}, by default {@link DecorrelatedJitterBackoffStrategy}.
+ */
+public class BackoffRetryHandler implements RetryHandler {
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final BackoffStrategy backoffStrategy;
+
+    public BackoffRetryHandler() {
+        this(new DecorrelatedJitterBackoffStrategy());
+    }
+
+    public BackoffRetryHandler(BackoffStrategy backoffStrategy) {
+        this.backoffStrategy = backoffStrategy;
+    }
+
     @Override
     public boolean isRetryable(SQLException sqlException) {
         // 40001 (PSQLState.SERIALIZATION_FAILURE) is the only state code we are looking for in terms of safe retries.
@@ -29,12 +45,10 @@ public class ExponentialBackoffRetryHandler implements RetryHandler {
     }
 
     @Override
-    public void handleTransientException(SQLException sqlException, int methodCalls, Signature signature,
-                                         long maxBackoff) {
+    public long handleTransientException(SQLException sqlException, int methodCalls, Signature signature,
+                                         long previousBackoff, long baseBackoff, long maxBackoff) {
+        long backoffMillis = backoffStrategy.nextBackoff(methodCalls, previousBackoff, baseBackoff, maxBackoff);
         try {
-            long backoffMillis = Math.min((long) (Math.pow(2, methodCalls)
-                                                  + ThreadLocalRandom.current().nextInt(1000)), maxBackoff);
-
             logger.warn("Transient SQL error (%s) for method [%s] attempt (%d) backoff %s ms: %s".formatted(
                     sqlException.getSQLState(),
                     signature.toShortString(),
@@ -46,15 +60,24 @@ public class ExponentialBackoffRetryHandler implements RetryHandler {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        return backoffMillis;
     }
 
     @Override
     public void handleTransientExceptionRecovery(SQLException sqlException, int methodCalls, Signature signature,
                                                  Duration elapsedTime) {
+        backoffStrategy.onRecovery(methodCalls - 1, elapsedTime);
+
         logger.info("Recovered from transient SQL error (%s) for method [%s] attempt (%d) time spent: %s"
                 .formatted(sqlException.getSQLState(),
                         signature.toShortString(),
                         methodCalls,
                         elapsedTime.toString()));
     }
+
+    @Override
+    public void handleTransientExceptionExhaustion(SQLException sqlException, int methodCalls, Signature signature,
+                                                   Duration elapsedTime) {
+        backoffStrategy.onExhaustion(methodCalls - 1, elapsedTime);
+    }
 }
@@ -4,24 +4,23 @@ import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.util.StringUtils;
 
+/**
+ * Ad-hoc session metadata queries that run on every call. Cluster version and feature
+ * checks are provided by {@link io.cockroachdb.training.common.metadata.ClusterMetadataService},
+ * which probes once and caches the result.
+ */
 public abstract class MetadataUtils {
     private MetadataUtils() {
     }
 
-    public static boolean isCockroachDB(DataSource dataSource) {
-        return databaseVersion(dataSource).contains("CockroachDB");
-    }
-
-    public static String databaseVersion(DataSource dataSource) {
-        try {
-            return new JdbcTemplate(dataSource).queryForObject("select version()", String.class);
-        } catch (DataAccessException e) {
-            return "unknown";
-        }
-    }
-
+    /**
+     * The isolation level is a session variable that may differ per connection and
+     * change at any time, so it's not cached by the cluster metadata service.
+     *
+     * @param dataSource the data source to borrow a connection from
+     * @return the isolation level of the connection session or "unknown"
+     */
     public static String databaseIsolation(DataSource dataSource) {
         try {
             return new JdbcTemplate(dataSource)
@@ -30,17 +29,4 @@ public abstract class MetadataUtils {
             return "unknown";
         }
     }
-
-    public static boolean hasEnterpriseLicense(DataSource dataSource) {
-        try {
-            if (isCockroachDB(dataSource)) {
-                String license = new JdbcTemplate(dataSource)
-                        .queryForObject("SHOW CLUSTER SETTING enterprise.license", String.class);
-                return StringUtils.hasLength(license);
-            }
-            return false;
-        } catch (DataAccessException e) {
-            return false;
-        }
-    }
 }
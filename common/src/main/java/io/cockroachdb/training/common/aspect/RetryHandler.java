@@ -13,11 +13,19 @@ public interface RetryHandler {
 
     }
 
-    default void handleTransientException(SQLException sqlException,
+    /**
+     * Handle a transient error before the next retry, typically by backing off.
+     *
+     * @param previousBackoff the previous backoff in millis or 0 if none
+     * @return the backoff applied in millis
+     */
+    default long handleTransientException(SQLException sqlException,
                                           int methodCalls,
                                           Signature signature,
+                                          long previousBackoff,
+                                          long baseBackoff,
                                           long maxBackoff) {
-
+        return 0;
     }
 
     default void handleTransientExceptionRecovery(SQLException sqlException,
@@ -26,4 +34,15 @@ public interface RetryHandler {
                                                   Duration elapsedTime) {
 
     }
+
+    /**
+     * Handle giving up on a transient error, either when out of retry attempts
+     * or when rejected by the retry budget.
+     */
+    default void handleTransientExceptionExhaustion(SQLException sqlException,
+                                                    int methodCalls,
+                                                    Signature signature,
+                                                    Duration elapsedTime) {
+
+    }
 }
@@ -1,21 +1,27 @@
 package io.cockroachdb.training.common.aspect;
 
+import java.lang.reflect.Method;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.sql.DataSource;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
-import io.cockroachdb.training.common.annotation.TimeTravel;
-import io.cockroachdb.training.common.annotation.TimeTravelMode;
 import io.cockroachdb.training.common.annotation.TransactionExplicit;
-import io.cockroachdb.training.common.annotation.TransactionPriority;
+import io.cockroachdb.training.common.jdbc.SessionStateConnection;
+import io.cockroachdb.training.common.metadata.ClusterMetadataService;
 
 /**
  * AOP aspect that sets specific and arbitrary transaction/session variables.
@@ -40,12 +46,21 @@ public class TransactionDecoratorAspect {
 
     private final JdbcTemplate jdbcTemplate;
 
-    private final boolean hasEnterpriseLicense;
+    private final ClusterMetadataService clusterMetadataService;
+
+    private final Map<Method, TransactionDescriptor> descriptors = new ConcurrentHashMap<>();
 
     public TransactionDecoratorAspect(DataSource dataSource) {
+        this(dataSource, new ClusterMetadataService(dataSource, Duration.ofMinutes(5)));
+    }
+
+    public TransactionDecoratorAspect(DataSource dataSource, ClusterMetadataService clusterMetadataService) {
         Assert.notNull(dataSource, "dataSource is null");
+        Assert.notNull(clusterMetadataService, "clusterMetadataService is null");
         this.jdbcTemplate = new JdbcTemplate(dataSource);
-        this.hasEnterpriseLicense = MetadataUtils.hasEnterpriseLicense(dataSource);
+        this.clusterMetadataService = clusterMetadataService;
+        // Probe eagerly to avoid paying for it on the first transaction
+        this.clusterMetadataService.getClusterMetadata();
     }
 
     @Around(value = "Pointcuts.anyExplicitTransactionBoundary(transactionExplicit)",
@@ -53,53 +68,61 @@ public class TransactionDecoratorAspect {
     public Object doInTransaction(ProceedingJoinPoint pjp, TransactionExplicit transactionExplicit)
             throws Throwable {
         Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
-                "Expecting active transaction - check advice @Order and @EnableTransactionManagement order: "
-                + pjp.getSignature().toShortString());
-
-        // Grab from type if needed (for non-annotated methods)
-        if (transactionExplicit == null) {
-            transactionExplicit = TransactionRetryAspect.findAnnotation(pjp, TransactionExplicit.class);
-        }
+                () -> "Expecting active transaction - check advice @Order and @EnableTransactionManagement order: "
+                      + pjp.getSignature().toShortString());
 
-        Assert.notNull(transactionExplicit, "No @TransactionBoundary annotation found!?");
+        final TransactionDescriptor descriptor = resolveDescriptor(pjp, transactionExplicit);
 
-        if (!"(empty)".equals(transactionExplicit.applicationName())) {
-            jdbcTemplate.update("SET application_name=?", transactionExplicit.applicationName());
+        boolean retry = false;
+        if (TransactionSynchronizationManager.hasResource(TransactionRetryAspect.RETRY_ASPECT_CALL_COUNT)) {
+            Integer numCalls = (Integer) TransactionSynchronizationManager
+                    .getResource(TransactionRetryAspect.RETRY_ASPECT_CALL_COUNT);
+            retry = Objects.nonNull(numCalls) && numCalls > 1;
         }
 
-        if (!TransactionPriority.NORMAL.equals(transactionExplicit.retryPriority())) {
-            jdbcTemplate.execute("SET TRANSACTION PRIORITY "
-                                 + transactionExplicit.retryPriority().name());
-        } else {
-            if (TransactionSynchronizationManager.hasResource(TransactionRetryAspect.RETRY_ASPECT_CALL_COUNT)) {
-                Integer numCalls = (Integer) TransactionSynchronizationManager
-                        .getResource(TransactionRetryAspect.RETRY_ASPECT_CALL_COUNT);
-                // Increase priority on retry
-                if (Objects.nonNull(numCalls) && numCalls > 1) {
-                    jdbcTemplate.execute("SET TRANSACTION PRIORITY "
-                                         + transactionExplicit.retryPriority().name());
+        final boolean isRetry = retry;
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            final String statements;
+            if (connection.isWrapperFor(SessionStateConnection.class)) {
+                // Skip session variables already set on the pooled connection
+                Map<String, String> sessionVariables = connection.unwrap(SessionStateConnection.class)
+                        .diffSessionVariables(descriptor.getSessionVariables());
+                statements = descriptor.getStatements(isRetry, sessionVariables);
+            } else {
+                statements = descriptor.getStatements(isRetry);
+            }
+
+            if (statements != null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(statements);
                 }
             }
-        }
+            return null;
+        });
 
-        if (!"0s".equals(transactionExplicit.idleTimeout())) {
-            jdbcTemplate.update("SET idle_in_transaction_session_timeout=?", transactionExplicit.idleTimeout());
-        }
+        return pjp.proceed();
+    }
 
-        if (transactionExplicit.readOnly()) {
-            jdbcTemplate.execute("SET transaction_read_only=true");
-        }
+    private TransactionDescriptor resolveDescriptor(ProceedingJoinPoint pjp,
+                                                    TransactionExplicit transactionExplicit) {
+        final Method method = ((MethodSignature) pjp.getSignature()).getMethod();
 
-        if (hasEnterpriseLicense) {
-            TimeTravel timeTravel = transactionExplicit.timeTravel();
-            if (timeTravel.mode().equals(TimeTravelMode.FOLLOWER_READ)) {
-                jdbcTemplate.execute("SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()");
-            } else if (timeTravel.mode().equals(TimeTravelMode.HISTORICAL_READ)) {
-                jdbcTemplate.update("SET TRANSACTION AS OF SYSTEM TIME INTERVAL '"
-                                    + timeTravel.interval() + "'");
+        final boolean hasEnterpriseLicense = clusterMetadataService.getClusterMetadata().hasEnterpriseLicense();
+
+        TransactionDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null || descriptor.hasEnterpriseLicense() != hasEnterpriseLicense) {
+            // Grab from type if needed (for non-annotated methods)
+            if (transactionExplicit == null) {
+                transactionExplicit = TransactionRetryAspect.findAnnotation(pjp, TransactionExplicit.class);
             }
+
+            Assert.notNull(transactionExplicit, "No @TransactionBoundary annotation found!?");
+
+            descriptor = TransactionDescriptor.of(transactionExplicit, hasEnterpriseLicense);
+            descriptors.put(method, descriptor);
         }
 
-        return pjp.proceed();
+        return descriptor;
     }
 }
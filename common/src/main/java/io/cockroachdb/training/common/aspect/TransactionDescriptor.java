@@ -0,0 +1,133 @@
+package io.cockroachdb.training.common.aspect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.cockroachdb.training.common.annotation.TimeTravel;
+import io.cockroachdb.training.common.annotation.TimeTravelMode;
+import io.cockroachdb.training.common.annotation.TransactionExplicit;
+import io.cockroachdb.training.common.annotation.TransactionPriority;
+
+/**
+ * Precompiled session variables and transaction statements for a method annotated with
+ * {@link TransactionExplicit}, resolved once per method. Session variables persist on the
+ * connection and can be skipped if already set, while transaction statements apply to
+ * the current transaction only. Both are joined into a single multi-statement string to
+ * be sent in one round-trip.
+ */
+final class TransactionDescriptor {
+    static TransactionDescriptor of(TransactionExplicit transactionExplicit, boolean hasEnterpriseLicense) {
+        Map<String, String> sessionVariables = new LinkedHashMap<>();
+
+        if (!"(empty)".equals(transactionExplicit.applicationName())) {
+            sessionVariables.put("application_name", quote(transactionExplicit.applicationName()));
+        }
+
+        if (!"0s".equals(transactionExplicit.idleTimeout())) {
+            sessionVariables.put("idle_in_transaction_session_timeout", quote(transactionExplicit.idleTimeout()));
+        }
+
+        List<String> statements = new ArrayList<>();
+        List<String> retryStatements = new ArrayList<>();
+
+        if (!TransactionPriority.NORMAL.equals(transactionExplicit.retryPriority())) {
+            statements.add("SET TRANSACTION PRIORITY " + transactionExplicit.retryPriority().name());
+            retryStatements.add("SET TRANSACTION PRIORITY " + transactionExplicit.retryPriority().name());
+        } else {
+            // Increase priority on retry
+            retryStatements.add("SET TRANSACTION PRIORITY " + transactionExplicit.retryPriority().name());
+        }
+
+        List<String> trailing = new ArrayList<>();
+
+        if (transactionExplicit.readOnly()) {
+            trailing.add("SET transaction_read_only=true");
+        }
+
+        if (hasEnterpriseLicense) {
+            TimeTravel timeTravel = transactionExplicit.timeTravel();
+            if (timeTravel.mode().equals(TimeTravelMode.FOLLOWER_READ)) {
+                trailing.add("SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()");
+            } else if (timeTravel.mode().equals(TimeTravelMode.HISTORICAL_READ)) {
+                trailing.add("SET TRANSACTION AS OF SYSTEM TIME INTERVAL " + quote(timeTravel.interval()));
+            }
+        }
+
+        statements.addAll(trailing);
+        retryStatements.addAll(trailing);
+
+        return new TransactionDescriptor(sessionVariables, statements, retryStatements, hasEnterpriseLicense);
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static String join(Map<String, String> sessionVariables, List<String> statements) {
+        List<String> all = new ArrayList<>();
+        sessionVariables.forEach((name, value) -> all.add("SET " + name + "=" + value));
+        all.addAll(statements);
+        return all.isEmpty() ? null : String.join("; ", all);
+    }
+
+    private final boolean hasEnterpriseLicense;
+
+    private final Map<String, String> sessionVariables;
+
+    private final List<String> statements;
+
+    private final List<String> retryStatements;
+
+    private final String allStatements;
+
+    private final String allRetryStatements;
+
+    private TransactionDescriptor(Map<String, String> sessionVariables,
+                                  List<String> statements, List<String> retryStatements,
+                                  boolean hasEnterpriseLicense) {
+        this.hasEnterpriseLicense = hasEnterpriseLicense;
+        this.sessionVariables = Collections.unmodifiableMap(sessionVariables);
+        this.statements = List.copyOf(statements);
+        this.retryStatements = List.copyOf(retryStatements);
+        this.allStatements = join(sessionVariables, statements);
+        this.allRetryStatements = join(sessionVariables, retryStatements);
+    }
+
+    /**
+     * @return true if the statements were resolved for a cluster with an enterprise license
+     */
+    boolean hasEnterpriseLicense() {
+        return hasEnterpriseLicense;
+    }
+
+    /**
+     * @return session variable names mapped to SQL literal values
+     */
+    Map<String, String> getSessionVariables() {
+        return sessionVariables;
+    }
+
+    /**
+     * @param retry true if the transaction is a retry attempt
+     * @return multi-statement string with all session variables and transaction statements, or null if none
+     */
+    String getStatements(boolean retry) {
+        return retry ? allRetryStatements : allStatements;
+    }
+
+    /**
+     * @param retry            true if the transaction is a retry attempt
+     * @param sessionVariables the subset of session variables to set
+     * @return multi-statement string with the given session variables and all transaction statements,
+     * or null if none
+     */
+    String getStatements(boolean retry, Map<String, String> sessionVariables) {
+        if (sessionVariables.size() == this.sessionVariables.size()) {
+            return getStatements(retry);
+        }
+        return join(sessionVariables, retry ? retryStatements : statements);
+    }
+}
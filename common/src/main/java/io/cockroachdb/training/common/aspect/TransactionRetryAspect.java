@@ -1,14 +1,18 @@
 package io.cockroachdb.training.common.aspect;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.NestedExceptionUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.Order;
@@ -17,6 +21,8 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import org.springframework.util.Assert;
 
 import io.cockroachdb.training.common.annotation.Retryable;
+import io.cockroachdb.training.common.budget.RetryGovernor;
+import io.cockroachdb.training.common.retry.RetryMetrics;
 
 /**
  * AOP aspect that automatically retries operations that throw transient SQL exceptions
@@ -39,6 +45,9 @@ import io.cockroachdb.training.common.annotation.Retryable;
  * and before the {@link TransactionDecoratorAspect} if used simultaneously.
  * See {@link org.springframework.transaction.annotation.EnableTransactionManagement} for
  * controlling weaving order.
+ * <p>
+ * Retries can be limited across invocations by a {@link RetryGovernor} that applies
+ * retry budgets and circuit breakers, to avoid retry amplification under contention.
  *
  * @author Kai Niemi
  */
@@ -59,8 +68,25 @@ public class TransactionRetryAspect {
 
     private final RetryHandler retryHandler;
 
+    private final RetryGovernor retryGovernor;
+
+    private final RetryMetrics retryMetrics;
+
+    private final Map<Method, RetryDescriptor> descriptors = new ConcurrentHashMap<>();
+
     public TransactionRetryAspect(RetryHandler retryHandler) {
+        this(retryHandler, RetryGovernor.unlimited());
+    }
+
+    public TransactionRetryAspect(RetryHandler retryHandler, RetryGovernor retryGovernor) {
+        this(retryHandler, retryGovernor, new RetryMetrics());
+    }
+
+    public TransactionRetryAspect(RetryHandler retryHandler, RetryGovernor retryGovernor,
+                                  RetryMetrics retryMetrics) {
         this.retryHandler = retryHandler;
+        this.retryGovernor = retryGovernor;
+        this.retryMetrics = retryMetrics;
     }
 
     @Around(value = "io.cockroachdb.training.common.aspect.Pointcuts.anyRetryableOperation(retryable)",
@@ -69,60 +95,145 @@ public class TransactionRetryAspect {
         Assert.isTrue(!TransactionSynchronizationManager.isActualTransactionActive(),
                 "Expecting no active transaction - check advice @Order and @EnableTransactionManagement order");
 
-        // Grab from type if needed (for non-annotated methods)
-        if (retryable == null) {
-            retryable = findAnnotation(pjp, Retryable.class);
+        final RetryDescriptor descriptor = resolveDescriptor(pjp, retryable);
+        final String method = descriptor.methodName;
+
+        retryable = descriptor.retryable;
+
+        if (!retryGovernor.tryAcquireCall(method)) {
+            retryMetrics.recordCall(method, RetryMetrics.OUTCOME_REJECTED, 0, Duration.ZERO);
+            throw new ConcurrencyFailureException(
+                    "Circuit breaker open for method [" + method + "]. Failing fast!");
         }
 
-        Assert.notNull(retryable, "No @Retryable annotation found!?");
+        // Cleared once the outcome of the acquired permission is reported, so that
+        // errors escaping the loop don't leak half-open circuit breaker probes
+        boolean permitHeld = true;
 
-        int methodCalls = 0;
-        SQLException sqlException = null;
+        try {
+            int methodCalls = 0;
+            long backoff = 0;
+            SQLException sqlException = null;
 
-        final Instant callTime = Instant.now();
+            final Instant callTime = Instant.now();
 
-        do {
-            final Throwable throwable;
-            try {
-                methodCalls++;
+            do {
+                final Throwable throwable;
+                try {
+                    methodCalls++;
 
-                TransactionSynchronizationManager.bindResource(RETRY_ASPECT_CALL_COUNT, methodCalls);
+                    TransactionSynchronizationManager.bindResource(RETRY_ASPECT_CALL_COUNT, methodCalls);
 
-                Object rv = pjp.proceed();
+                    Object rv = pjp.proceed();
 
-                if (methodCalls > 1) {
-                    retryHandler.handleTransientExceptionRecovery(sqlException, methodCalls, pjp.getSignature(),
-                            Duration.between(callTime, Instant.now()));
-                }
+                    permitHeld = false;
+                    retryGovernor.onSuccess(method);
 
-                return rv;
-            } catch (UndeclaredThrowableException ex) {
-                throwable = ex.getUndeclaredThrowable();
-            } catch (Exception ex) {
-                throwable = ex;
-            } finally {
-                TransactionSynchronizationManager.unbindResource(RETRY_ASPECT_CALL_COUNT);
-            }
+                    Duration elapsedTime = Duration.between(callTime, Instant.now());
+
+                    if (methodCalls > 1) {
+                        retryHandler.handleTransientExceptionRecovery(sqlException, methodCalls, pjp.getSignature(),
+                                elapsedTime);
+                        retryMetrics.recordCall(method, RetryMetrics.OUTCOME_RECOVERED, methodCalls, elapsedTime);
+                    } else {
+                        retryMetrics.recordCall(method, RetryMetrics.OUTCOME_SUCCESS, methodCalls, elapsedTime);
+                    }
+
+                    return rv;
+                } catch (UndeclaredThrowableException ex) {
+                    throwable = ex.getUndeclaredThrowable();
+                } catch (Exception ex) {
+                    throwable = ex;
+                } finally {
+                    TransactionSynchronizationManager.unbindResource(RETRY_ASPECT_CALL_COUNT);
+                }
 
-            Throwable cause = NestedExceptionUtils.getMostSpecificCause(throwable);
-            if (cause instanceof SQLException) {
-                sqlException = (SQLException) cause;
-                if (retryHandler.isRetryable(sqlException)) {
-                    retryHandler.handleTransientException(sqlException, methodCalls, pjp.getSignature(),
-                            retryable.maxBackoff());
+                Throwable cause = NestedExceptionUtils.getMostSpecificCause(throwable);
+                if (cause instanceof SQLException) {
+                    sqlException = (SQLException) cause;
+                    if (retryHandler.isRetryable(sqlException)) {
+                        permitHeld = false;
+                        retryGovernor.onTransientError(method);
+                        retryMetrics.recordError(method, sqlException.getSQLState(), true);
+
+                        if (methodCalls - 1 < retryable.retryAttempts()) {
+                            if (!retryGovernor.tryAcquireRetry(method)) {
+                                Duration elapsedTime = Duration.between(callTime, Instant.now());
+                                retryHandler.handleTransientExceptionExhaustion(sqlException, methodCalls,
+                                        pjp.getSignature(), elapsedTime);
+                                retryMetrics.recordCall(method, RetryMetrics.OUTCOME_REJECTED, methodCalls,
+                                        elapsedTime);
+                                throw new ConcurrencyFailureException(
+                                        "Retry budget exhausted or circuit breaker open for method ["
+                                        + method + "]. Failing fast!", throwable);
+                            }
+                            permitHeld = true;
+                        }
+
+                        backoff = retryHandler.handleTransientException(sqlException, methodCalls, pjp.getSignature(),
+                                backoff, retryable.baseBackoff(), retryable.maxBackoff());
+                        retryMetrics.recordBackoff(method, sqlException.getSQLState(), Duration.ofMillis(backoff));
+                    } else {
+                        permitHeld = false;
+                        retryGovernor.onSuccess(method);
+                        retryHandler.handleNonTransientException(sqlException);
+                        retryMetrics.recordError(method, sqlException.getSQLState(), false);
+                        retryMetrics.recordCall(method, RetryMetrics.OUTCOME_FAILED, methodCalls,
+                                Duration.between(callTime, Instant.now()));
+                        throw throwable;
+                    }
                 } else {
-                    retryHandler.handleNonTransientException(sqlException);
+                    permitHeld = false;
+                    retryGovernor.onSuccess(method);
+                    retryMetrics.recordCall(method, RetryMetrics.OUTCOME_FAILED, methodCalls,
+                            Duration.between(callTime, Instant.now()));
                     throw throwable;
                 }
-            } else {
-                throw throwable;
+            } while (methodCalls - 1 < retryable.retryAttempts());
+
+            Duration elapsedTime = Duration.between(callTime, Instant.now());
+            retryHandler.handleTransientExceptionExhaustion(sqlException, methodCalls, pjp.getSignature(),
+                    elapsedTime);
+            retryMetrics.recordCall(method, RetryMetrics.OUTCOME_EXHAUSTED, methodCalls, elapsedTime);
+
+            throw new ConcurrencyFailureException(
+                    "Too many transient SQL errors (" + methodCalls + ") for method ["
+                    + method
+                    + "]. Giving up!");
+        } finally {
+            if (permitHeld) {
+                retryGovernor.release(method);
+            }
+        }
+    }
+
+    private RetryDescriptor resolveDescriptor(ProceedingJoinPoint pjp, Retryable retryable) {
+        final Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+
+        RetryDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            // Grab from type if needed (for non-annotated methods)
+            if (retryable == null) {
+                retryable = findAnnotation(pjp, Retryable.class);
             }
-        } while (methodCalls - 1 < retryable.retryAttempts());
 
-        throw new ConcurrencyFailureException(
-                "Too many transient SQL errors (" + methodCalls + ") for method ["
-                + pjp.getSignature().toShortString()
-                + "]. Giving up!");
+            Assert.notNull(retryable, "No @Retryable annotation found!?");
+
+            descriptor = new RetryDescriptor(retryable, pjp.getSignature().toShortString());
+            descriptors.putIfAbsent(method, descriptor);
+        }
+
+        return descriptor;
     }
-}
 
+    private static final class RetryDescriptor {
+        final Retryable retryable;
+
+        final String methodName;
+
+        RetryDescriptor(Retryable retryable, String methodName) {
+            this.retryable = retryable;
+            this.methodName = methodName;
+        }
+    }
+}
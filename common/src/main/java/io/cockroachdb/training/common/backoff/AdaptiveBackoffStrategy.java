@@ -0,0 +1,72 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Contention-adaptive decorator that scales the delays of another strategy by
+ * the recent number of retries needed to recover. When calls recover at the first
+ * retry the delays shrink down to a minimum fraction, and as contention builds up
+ * and more retries are needed they grow back to the full delay. Each call that retried
+ * is sampled once, when it either recovers or gives up. Calls succeeding at the first
+ * attempt aren't sampled, which keeps the shared average off the hot path.
+ */
+public class AdaptiveBackoffStrategy implements BackoffStrategy {
+    // Weight of the most recent sample in the moving average
+    private static final double ALPHA = 0.2;
+
+    private final BackoffStrategy delegate;
+
+    private final double minScale;
+
+    private final double fullScaleRetries;
+
+    private double averageRetries;
+
+    public AdaptiveBackoffStrategy(BackoffStrategy delegate) {
+        this(delegate, 0.1, 3);
+    }
+
+    /**
+     * @param delegate         the strategy to scale
+     * @param minScale         lower bound of the scale factor (0..1)
+     * @param fullScaleRetries average number of retries (above 1) at which the full delay is used,
+     *                         scaling down linearly to the minimum at one retry
+     */
+    public AdaptiveBackoffStrategy(BackoffStrategy delegate, double minScale, double fullScaleRetries) {
+        Assert.isTrue(minScale > 0 && minScale <= 1, "minScale must be in (0..1]");
+        Assert.isTrue(fullScaleRetries > 1, "fullScaleRetries must be > 1");
+        this.delegate = delegate;
+        this.minScale = minScale;
+        this.fullScaleRetries = fullScaleRetries;
+        this.averageRetries = fullScaleRetries;
+    }
+
+    public synchronized double getScale() {
+        // Sampled calls have at least one retry
+        return Math.max(minScale, Math.min(1.0, (averageRetries - 1) / (fullScaleRetries - 1)));
+    }
+
+    @Override
+    public long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff) {
+        return Math.max(1, (long) (delegate.nextBackoff(attempt, previousBackoff, baseBackoff, maxBackoff)
+                                   * getScale()));
+    }
+
+    @Override
+    public void onRecovery(int retries, Duration elapsedTime) {
+        record(retries);
+        delegate.onRecovery(retries, elapsedTime);
+    }
+
+    @Override
+    public void onExhaustion(int retries, Duration elapsedTime) {
+        record(retries);
+        delegate.onExhaustion(retries, elapsedTime);
+    }
+
+    private synchronized void record(int retries) {
+        averageRetries += ALPHA * (retries - averageRetries);
+    }
+}
@@ -0,0 +1,39 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.time.Duration;
+
+/**
+ * Strategy for computing the delay before retrying an operation that failed
+ * with a transient error.
+ */
+@FunctionalInterface
+public interface BackoffStrategy {
+    /**
+     * Compute the next backoff delay.
+     *
+     * @param attempt         the retry attempt starting at 1
+     * @param previousBackoff the previous backoff in millis or 0 if none
+     * @param baseBackoff     the base backoff in millis
+     * @param maxBackoff      the upper bound in millis
+     * @return the backoff in millis, never more than maxBackoff
+     */
+    long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff);
+
+    /**
+     * Invoked when an operation succeeds after one or more retries.
+     *
+     * @param retries     the number of retries needed
+     * @param elapsedTime total time spent including all attempts
+     */
+    default void onRecovery(int retries, Duration elapsedTime) {
+    }
+
+    /**
+     * Invoked when an operation gives up after one or more retries.
+     *
+     * @param retries     the number of retries performed
+     * @param elapsedTime total time spent including all attempts
+     */
+    default void onExhaustion(int retries, Duration elapsedTime) {
+    }
+}
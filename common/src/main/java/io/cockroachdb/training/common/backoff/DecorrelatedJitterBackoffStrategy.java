@@ -0,0 +1,16 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random delay between the base and three times the previous delay, capped by
+ * the max backoff. Grows roughly exponentially but spreads competing retries
+ * apart better than plain exponential backoff.
+ */
+public class DecorrelatedJitterBackoffStrategy implements BackoffStrategy {
+    @Override
+    public long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff) {
+        long upper = Math.max(baseBackoff, previousBackoff * 3);
+        return Math.min(maxBackoff, ThreadLocalRandom.current().nextLong(baseBackoff, upper + 1));
+    }
+}
@@ -0,0 +1,15 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential delay of {@code 2^attempt} millis plus up to one second of random jitter.
+ * The jitter dominates for the first attempts. Retained for comparison, prefer
+ * {@link DecorrelatedJitterBackoffStrategy} or {@link FullJitterBackoffStrategy}.
+ */
+public class ExponentialBackoffStrategy implements BackoffStrategy {
+    @Override
+    public long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff) {
+        return Math.min((long) (Math.pow(2, attempt) + ThreadLocalRandom.current().nextInt(1000)), maxBackoff);
+    }
+}
@@ -0,0 +1,11 @@
+package io.cockroachdb.training.common.backoff;
+
+/**
+ * Constant delay equal to the base backoff.
+ */
+public class FixedBackoffStrategy implements BackoffStrategy {
+    @Override
+    public long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff) {
+        return Math.min(baseBackoff, maxBackoff);
+    }
+}
@@ -0,0 +1,15 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random delay between zero and an exponentially growing ceiling of
+ * {@code base * 2^attempt}, capped by the max backoff.
+ */
+public class FullJitterBackoffStrategy implements BackoffStrategy {
+    @Override
+    public long nextBackoff(int attempt, long previousBackoff, long baseBackoff, long maxBackoff) {
+        long ceiling = Math.min(maxBackoff, baseBackoff << Math.min(attempt, 30));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides pluggable backoff strategies for transaction retries.
+ */
+package io.cockroachdb.training.common.backoff;
\ No newline at end of file
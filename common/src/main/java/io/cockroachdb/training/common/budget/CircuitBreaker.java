@@ -0,0 +1,172 @@
+package io.cockroachdb.training.common.budget;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker tripping on the ratio of transient errors (40001) over a sliding
+ * window of recent calls. When open, calls fail fast until the open duration has passed,
+ * after which a limited number of probe calls are let through (half-open). The breaker
+ * closes if all probes succeed and opens again on any transient error. Probes that
+ * don't report an outcome within the open duration are considered lost and reissued.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] window;
+
+    private final int minimumCalls;
+
+    private final double failureThreshold;
+
+    private final long openNanos;
+
+    private final int probeCalls;
+
+    private State state = State.CLOSED;
+
+    private int position;
+
+    private int calls;
+
+    private int failures;
+
+    private long openedAt;
+
+    private long halfOpenedAt;
+
+    private int probesIssued;
+
+    private int probesSucceeded;
+
+    private long rejectedCalls;
+
+    /**
+     * @param windowSize       number of recent calls to track
+     * @param minimumCalls     number of calls needed in the window before the breaker can trip
+     * @param failureThreshold ratio of transient errors (0..1) above which the breaker trips
+     * @param openDuration     time to stay open before probing
+     * @param probeCalls       number of probe calls in half-open state
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureThreshold,
+                          Duration openDuration, int probeCalls) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.probeCalls = probeCalls;
+    }
+
+    /**
+     * @return true if a call is permitted
+     */
+    public synchronized boolean tryAcquirePermission() {
+        long now = System.nanoTime();
+
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            halfOpen(now);
+        } else if (state == State.HALF_OPEN && probesIssued >= probeCalls && now - halfOpenedAt >= openNanos) {
+            // Reissue probes that never reported an outcome
+            probesIssued = probesSucceeded;
+            halfOpenedAt = now;
+        }
+
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probesIssued < probeCalls) {
+                    probesIssued++;
+                    yield true;
+                }
+                yield false;
+            }
+        };
+
+        if (!permitted) {
+            rejectedCalls++;
+        }
+
+        return permitted;
+    }
+
+    /**
+     * Give back a permission that was acquired but not used, or whose call completed
+     * without an outcome relevant to the breaker.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= probeCalls) {
+                reset();
+            }
+        } else {
+            record(false);
+        }
+    }
+
+    public synchronized void onTransientError() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else {
+            record(true);
+            if (state == State.CLOSED && calls >= minimumCalls && getFailureRatio() > failureThreshold) {
+                open();
+            }
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void halfOpen(long now) {
+        state = State.HALF_OPEN;
+        halfOpenedAt = now;
+        probesIssued = 0;
+        probesSucceeded = 0;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRatio() {
+        return calls > 0 ? (double) failures / calls : 0;
+    }
+
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+}
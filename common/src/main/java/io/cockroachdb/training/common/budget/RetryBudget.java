@@ -0,0 +1,57 @@
+package io.cockroachdb.training.common.budget;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries relative to first attempts. Each first attempt
+ * deposits a fraction of a token and each retry withdraws a full token, so that
+ * over time retries can't exceed the given ratio of first attempts plus the
+ * bucket capacity. The bucket starts full.
+ */
+public class RetryBudget {
+    // Tokens are kept in thousandths to allow fractional deposits
+    private static final long SCALE = 1000;
+
+    private final long capacity;
+
+    private final long deposit;
+
+    private final AtomicLong balance;
+
+    /**
+     * @param maxTokens  the bucket capacity in retries
+     * @param retryRatio the number of retries allowed per first attempt (for example 0.2)
+     */
+    public RetryBudget(int maxTokens, double retryRatio) {
+        this.capacity = maxTokens * SCALE;
+        this.deposit = (long) (retryRatio * SCALE);
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * @return true if a token was withdrawn for a retry
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public void refund() {
+        balance.getAndUpdate(current -> Math.min(capacity, current + SCALE));
+    }
+
+    public double getAvailableTokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
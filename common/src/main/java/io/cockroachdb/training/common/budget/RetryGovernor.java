@@ -0,0 +1,251 @@
+package io.cockroachdb.training.common.budget;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Shared retry budget and circuit breaker state, both globally and per method,
+ * used to limit retry amplification across concurrent retryable invocations.
+ * A call or retry is only permitted if both the global and the method scope permit it.
+ * <p>
+ * State is exposed as metrics under {@code retry.budget.*} and {@code retry.circuit.*}
+ * tagged by method, with {@code method=global} for the global scope.
+ * <p>
+ * The {@link #unlimited()} governor permits every call and retry without tracking
+ * any state or registering any metrics.
+ */
+public class RetryGovernor implements MeterBinder {
+    public static final String GLOBAL = "global";
+
+    private static final RetryGovernor UNLIMITED = new RetryGovernor();
+
+    public static RetryGovernor unlimited() {
+        return UNLIMITED;
+    }
+
+    private final boolean enabled;
+
+    private final Scope global;
+
+    private final Map<String, Scope> methods = new ConcurrentHashMap<>();
+
+    private final int maxTokens;
+
+    private final double retryRatio;
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final double failureThreshold;
+
+    private final Duration openDuration;
+
+    private final int probeCalls;
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param maxTokens        retry budget capacity
+     * @param retryRatio       retries allowed per first attempt
+     * @param windowSize       circuit breaker sliding window size
+     * @param minimumCalls     calls needed before the circuit breaker can trip
+     * @param failureThreshold transient error ratio (0..1) above which the circuit breaker trips
+     * @param openDuration     time the circuit breaker stays open before probing
+     * @param probeCalls       number of probe calls in half-open state
+     */
+    public RetryGovernor(int maxTokens, double retryRatio, int windowSize, int minimumCalls,
+                         double failureThreshold, Duration openDuration, int probeCalls) {
+        this.maxTokens = maxTokens;
+        this.retryRatio = retryRatio;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.probeCalls = probeCalls;
+        this.enabled = true;
+        this.global = newScope(GLOBAL);
+    }
+
+    private RetryGovernor() {
+        this.maxTokens = 0;
+        this.retryRatio = 0;
+        this.windowSize = 0;
+        this.minimumCalls = 0;
+        this.failureThreshold = 0;
+        this.openDuration = Duration.ZERO;
+        this.probeCalls = 0;
+        this.enabled = false;
+        this.global = null;
+    }
+
+    private Scope newScope(String name) {
+        Scope scope = new Scope(new RetryBudget(maxTokens, retryRatio),
+                new CircuitBreaker(windowSize, minimumCalls, failureThreshold, openDuration, probeCalls));
+        MeterRegistry registry = this.meterRegistry;
+        if (registry != null) {
+            scope.bindTo(registry, name);
+        }
+        return scope;
+    }
+
+    private Scope scopeOf(String method) {
+        return methods.computeIfAbsent(method, this::newScope);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        this.meterRegistry = registry;
+        global.bindTo(registry, GLOBAL);
+        methods.forEach((method, scope) -> scope.bindTo(registry, method));
+    }
+
+    /**
+     * Acquire permission for the first attempt of a call.
+     *
+     * @param method the method name
+     * @return false if any circuit breaker is open
+     */
+    public boolean tryAcquireCall(String method) {
+        if (!enabled) {
+            return true;
+        }
+        Scope scope = scopeOf(method);
+        if (!tryAcquirePermission(scope)) {
+            return false;
+        }
+        global.retryBudget.deposit();
+        scope.retryBudget.deposit();
+        return true;
+    }
+
+    /**
+     * Acquire permission for a retry, withdrawing from both retry budgets.
+     *
+     * @param method the method name
+     * @return false if any retry budget is exhausted or circuit breaker is open
+     */
+    public boolean tryAcquireRetry(String method) {
+        if (!enabled) {
+            return true;
+        }
+        Scope scope = scopeOf(method);
+        if (!tryAcquirePermission(scope)) {
+            return false;
+        }
+        if (!scope.retryBudget.tryWithdraw()) {
+            scope.exhausted.incrementAndGet();
+            releasePermission(scope);
+            return false;
+        }
+        if (!global.retryBudget.tryWithdraw()) {
+            scope.retryBudget.refund();
+            global.exhausted.incrementAndGet();
+            releasePermission(scope);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean tryAcquirePermission(Scope scope) {
+        if (!global.circuitBreaker.tryAcquirePermission()) {
+            return false;
+        }
+        if (!scope.circuitBreaker.tryAcquirePermission()) {
+            // Don't leak a global half-open probe
+            global.circuitBreaker.releasePermission();
+            return false;
+        }
+        return true;
+    }
+
+    private void releasePermission(Scope scope) {
+        global.circuitBreaker.releasePermission();
+        scope.circuitBreaker.releasePermission();
+    }
+
+    /**
+     * Give back the permission of a call or retry that completed without reporting
+     * success or a transient error, for example when interrupted by an {@link Error}.
+     *
+     * @param method the method name
+     */
+    public void release(String method) {
+        if (!enabled) {
+            return;
+        }
+        releasePermission(scopeOf(method));
+    }
+
+    public void onSuccess(String method) {
+        if (!enabled) {
+            return;
+        }
+        global.circuitBreaker.onSuccess();
+        scopeOf(method).circuitBreaker.onSuccess();
+    }
+
+    public void onTransientError(String method) {
+        if (!enabled) {
+            return;
+        }
+        global.circuitBreaker.onTransientError();
+        scopeOf(method).circuitBreaker.onTransientError();
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState(String method) {
+        if (!enabled) {
+            return CircuitBreaker.State.CLOSED;
+        }
+        return GLOBAL.equals(method) ? global.circuitBreaker.getState() : scopeOf(method).circuitBreaker.getState();
+    }
+
+    private static class Scope {
+        final RetryBudget retryBudget;
+
+        final CircuitBreaker circuitBreaker;
+
+        final AtomicLong exhausted = new AtomicLong();
+
+        Scope(RetryBudget retryBudget, CircuitBreaker circuitBreaker) {
+            this.retryBudget = retryBudget;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        void bindTo(MeterRegistry registry, String method) {
+            Tags tags = Tags.of("method", method);
+
+            Gauge.builder("retry.budget.tokens", retryBudget, RetryBudget::getAvailableTokens)
+                    .description("Available retry tokens")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("retry.budget.exhausted", exhausted, AtomicLong::get)
+                    .description("Retries rejected due to exhausted retry budget")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("retry.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                    .description("Circuit breaker state (0=closed, 1=open, 2=half-open)")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("retry.circuit.failure.ratio", circuitBreaker, CircuitBreaker::getFailureRatio)
+                    .description("Ratio of transient errors in the sliding window")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("retry.circuit.rejected", circuitBreaker, CircuitBreaker::getRejectedCalls)
+                    .description("Calls rejected by open circuit breaker")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
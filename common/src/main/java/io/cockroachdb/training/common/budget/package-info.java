@@ -0,0 +1,4 @@
+/**
+ * Provides retry budgets and circuit breakers to limit retry amplification under contention.
+ */
+package io.cockroachdb.training.common.budget;
\ No newline at end of file
@@ -0,0 +1,82 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Query listener that logs a sample of executed statements at TRACE level with a
+ * compact single-line format. Either logs 1 in N statements at random, or only
+ * statements slower than a threshold if one is set.
+ */
+public class SampledQueryLoggingListener implements QueryExecutionListener {
+    private final Logger logger;
+
+    private final int sampleRate;
+
+    private final long slowThresholdMillis;
+
+    /**
+     * @param loggerName    the logger to log to at TRACE level
+     * @param sampleRate    log 1 in N statements (1 logs all)
+     * @param slowThreshold log only statements at or above this execution time, or zero to sample
+     */
+    public SampledQueryLoggingListener(String loggerName, int sampleRate, Duration slowThreshold) {
+        Assert.isTrue(sampleRate > 0, "sampleRate must be > 0");
+        this.logger = LoggerFactory.getLogger(loggerName);
+        this.sampleRate = sampleRate;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!logger.isTraceEnabled() || !isSampled(execInfo)) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(256)
+                .append(execInfo.isSuccess() ? "OK" : "FAILED")
+                .append(" time=").append(execInfo.getElapsedTime()).append("ms")
+                .append(" conn=").append(execInfo.getConnectionId());
+        if (execInfo.isBatch()) {
+            sb.append(" batch=").append(execInfo.getBatchSize());
+        }
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            sb.append(" query=[").append(queryInfo.getQuery()).append(']');
+            for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+                sb.append(" params=[");
+                for (int i = 0; i < parameters.size(); i++) {
+                    Object[] args = parameters.get(i).getArgs();
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(args.length > 1 ? args[1] : null);
+                }
+                sb.append(']');
+            }
+        }
+
+        logger.trace(sb.toString());
+    }
+
+    private boolean isSampled(ExecutionInfo execInfo) {
+        if (slowThresholdMillis > 0) {
+            return execInfo.getElapsedTime() >= slowThresholdMillis;
+        }
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
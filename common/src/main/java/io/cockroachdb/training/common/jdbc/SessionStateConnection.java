@@ -0,0 +1,19 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.util.Map;
+
+/**
+ * Extension interface for connections that track session variable values per
+ * physical connection. Obtain it through {@link java.sql.Connection#unwrap(Class)}.
+ */
+public interface SessionStateConnection {
+    /**
+     * Compute the session variables that differ from the known state of the
+     * physical connection. The returned variables are expected to be set by the
+     * caller in the current transaction and become known state on commit.
+     *
+     * @param variables session variable names mapped to SQL literal values
+     * @return the variables that need to be set, in the same order
+     */
+    Map<String, String> diffSessionVariables(Map<String, String> variables);
+}
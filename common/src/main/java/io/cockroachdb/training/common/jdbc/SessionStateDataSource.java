@@ -0,0 +1,235 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source wrapper that tracks known session variable values per physical
+ * connection, to let callers skip SET statements that would be no-ops on a pooled
+ * connection. Values set in a transaction become known on commit and are discarded
+ * on rollback. Variables that must not leak between borrowers are reset when the
+ * connection is returned to the pool.
+ * <p>
+ * Must be placed directly above the connection pool so that closing a connection
+ * means returning it to the pool.
+ * <p>
+ * Every call on a connection goes through a dynamic proxy, so this only pays off if
+ * transactions actually set session variables that repeat between borrowers.
+ */
+public class SessionStateDataSource extends DelegatingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(SessionStateDataSource.class);
+
+    private static final int MIN_PRUNE_THRESHOLD = 64;
+
+    // Keyed by physical connection, entries of closed connections are pruned lazily
+    private final Map<Object, SessionState> sessionStates = new ConcurrentHashMap<>();
+
+    private volatile int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    private final Set<String> resetOnReturn;
+
+    /**
+     * @param targetDataSource the pooled data source
+     * @param resetOnReturn    session variables to reset when returned to the pool
+     */
+    public SessionStateDataSource(DataSource targetDataSource, Collection<String> resetOnReturn) {
+        super(targetDataSource);
+        this.resetOnReturn = new LinkedHashSet<>(resetOnReturn);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) throws SQLException {
+        if (sessionStates.size() > pruneThreshold) {
+            prune();
+        }
+        SessionState sessionState = sessionStates.computeIfAbsent(physicalConnection(connection),
+                key -> new SessionState());
+        return (Connection) Proxy.newProxyInstance(
+                SessionStateDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class, SessionStateConnection.class},
+                new SessionStateInvocationHandler(connection, sessionState));
+    }
+
+    private void prune() {
+        // Physical connections retired by the pool (max lifetime, eviction)
+        sessionStates.keySet().removeIf(key -> {
+            try {
+                return key instanceof Connection c && c.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        });
+        pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, sessionStates.size() * 2);
+    }
+
+    private static Object physicalConnection(Connection connection) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return connection.unwrap(PGConnection.class);
+        }
+        return connection;
+    }
+
+    private static class SessionState {
+        private final Map<String, String> known = new HashMap<>();
+
+        private final Map<String, String> pending = new HashMap<>();
+    }
+
+    private class SessionStateInvocationHandler implements InvocationHandler, SessionStateConnection {
+        private final Connection target;
+
+        private final SessionState sessionState;
+
+        private boolean closed;
+
+        SessionStateInvocationHandler(Connection target, SessionState sessionState) {
+            this.target = target;
+            this.sessionState = sessionState;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Session state proxy for target connection [" + target + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "diffSessionVariables":
+                    return diffSessionVariables((Map<String, String>) args[0]);
+                case "isClosed":
+                    if (closed) {
+                        return true;
+                    }
+                    break;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        close();
+                    }
+                    return null;
+                default:
+                    break;
+            }
+
+            try {
+                Object result = method.invoke(target, args);
+                switch (method.getName()) {
+                    case "commit" -> commit();
+                    case "rollback" -> {
+                        if (args == null || args.length == 0) {
+                            sessionState.pending.clear();
+                        }
+                    }
+                    case "setAutoCommit" -> {
+                        // Switching to auto-commit commits any active transaction
+                        if ((Boolean) args[0]) {
+                            commit();
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @Override
+        public Map<String, String> diffSessionVariables(Map<String, String> variables) {
+            Map<String, String> diff = new LinkedHashMap<>();
+            variables.forEach((name, value) -> {
+                if (!Objects.equals(sessionState.known.get(name), value)) {
+                    diff.put(name, value);
+                }
+            });
+            sessionState.pending.putAll(diff);
+            try {
+                if (target.getAutoCommit()) {
+                    commit();
+                }
+            } catch (SQLException e) {
+                // Keep pending until an explicit commit
+            }
+            return diff;
+        }
+
+        private void commit() {
+            sessionState.known.putAll(sessionState.pending);
+            sessionState.pending.clear();
+        }
+
+        private void close() throws SQLException {
+            sessionState.pending.clear();
+            try {
+                List<String> reset = resetOnReturn.stream()
+                        .filter(sessionState.known::containsKey)
+                        .map(name -> "RESET " + name)
+                        .toList();
+                if (!reset.isEmpty() && !target.isClosed()) {
+                    boolean autoCommit = target.getAutoCommit();
+                    if (!autoCommit) {
+                        // Same as the pool would do on return
+                        target.rollback();
+                    }
+                    try (Statement statement = target.createStatement()) {
+                        statement.execute(String.join("; ", reset));
+                    }
+                    if (!autoCommit) {
+                        target.commit();
+                    }
+                    resetOnReturn.forEach(sessionState.known::remove);
+                }
+            } catch (SQLException e) {
+                // Unknown state after failure
+                sessionState.known.clear();
+                logger.warn("Unable to reset session variables: {}", e.getMessage());
+            } finally {
+                target.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL statements into fingerprints by replacing literals and placeholders
+ * with '?', collapsing IN-lists and multi-row VALUES into a single element, and
+ * collapsing whitespace. Statements that only differ in literal values share the
+ * same fingerprint, and fingerprints never contain literal values.
+ */
+public abstract class SqlFingerprint {
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    // Type modifiers of casts like ::DECIMAL(10,2) are captured to be kept as-is
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile(
+            "(::\\s*\\w+\\s*\\([\\d\\s,]*\\))|(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\d+");
+
+    private static final Pattern LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern VALUES_LIST = Pattern.compile("(\\(\\?\\))(?:\\s*,\\s*\\(\\?\\))+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = cache.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            if (cache.size() < MAX_CACHE_SIZE) {
+                cache.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = PLACEHOLDER.matcher(s).replaceAll("?");
+        s = NUMERIC_LITERAL.matcher(s).replaceAll(m -> m.group(1) != null
+                ? Matcher.quoteReplacement(m.group(1)) : "?");
+        s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+        s = LIST.matcher(s).replaceAll("(?)");
+        s = VALUES_LIST.matcher(s).replaceAll("$1");
+        return s;
+    }
+}
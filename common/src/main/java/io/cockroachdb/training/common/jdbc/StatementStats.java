@@ -0,0 +1,97 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram and counters for a statement fingerprint executed under
+ * a given application name. Latencies are recorded in microseconds.
+ */
+public class StatementStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String fingerprint;
+
+    private final String applicationName;
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder slowCalls = new LongAdder();
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    public StatementStats(String fingerprint, String applicationName) {
+        this.fingerprint = fingerprint;
+        this.applicationName = applicationName;
+    }
+
+    void record(long elapsedNanos, long rowCount, boolean success, boolean slow) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, elapsedNanos / 1000));
+        histogram.recordValue(micros);
+        totalMicros.add(micros);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (!success) {
+            errors.increment();
+        }
+        if (slow) {
+            slowCalls.increment();
+        }
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public long getCalls() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * @return rows affected by DML statements
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(totalMicros.sum()));
+    }
+
+    public Duration getMeanTime() {
+        return Duration.ofNanos((long) (histogram.getMean() * 1000));
+    }
+
+    /**
+     * @param percentile the percentile (0-100)
+     * @return latency at the given percentile
+     */
+    public Duration getPercentile(double percentile) {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(histogram.getValueAtPercentile(percentile)));
+    }
+
+    public Duration getMaxTime() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(histogram.getMaxValue()));
+    }
+}
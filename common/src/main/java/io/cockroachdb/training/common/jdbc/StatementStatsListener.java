@@ -0,0 +1,227 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Query listener that records latency histograms, row counts and errors per statement
+ * fingerprint and application name, and logs statements slower than a threshold with
+ * bind parameters redacted to their types. Row counts are only available for DML
+ * statements, since result sets are not proxied.
+ * <p>
+ * The number of tracked fingerprints is bounded, with any excess aggregated under
+ * a single catch-all fingerprint. A top-N report is logged on close if a report
+ * size is set.
+ */
+public class StatementStatsListener implements QueryExecutionListener, AutoCloseable {
+    private static final String START_TIME = "StatementStatsListener.startTime";
+
+    private static final String OTHER = "(other)";
+
+    private static final String UNKNOWN = "(unknown)";
+
+    private final Logger logger;
+
+    private final long slowThresholdNanos;
+
+    private final int maxFingerprints;
+
+    private final Map<String, Map<String, StatementStats>> statsByApplication = new ConcurrentHashMap<>();
+
+    private int reportSize;
+
+    /**
+     * @param slowLoggerName  the logger for slow statements at WARN level
+     * @param slowThreshold   the threshold for slow statements, or zero to disable
+     * @param maxFingerprints max number of fingerprints tracked per application
+     */
+    public StatementStatsListener(String slowLoggerName, Duration slowThreshold, int maxFingerprints) {
+        this.logger = LoggerFactory.getLogger(slowLoggerName);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_TIME, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startTime = execInfo.getCustomValue(START_TIME, Long.class);
+        if (startTime == null || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        final long elapsedNanos = System.nanoTime() - startTime;
+        final boolean slow = slowThresholdNanos > 0 && elapsedNanos >= slowThresholdNanos;
+        final long[] rows = rowCounts(execInfo.getResult(), queryInfoList.size());
+        final String applicationName = applicationName(execInfo.getStatement());
+
+        // Batches of the same statement have one query info, multi-statement batches have several
+        long nanosPerQuery = elapsedNanos / queryInfoList.size();
+
+        for (int i = 0; i < queryInfoList.size(); i++) {
+            QueryInfo queryInfo = queryInfoList.get(i);
+            String fingerprint = SqlFingerprint.of(queryInfo.getQuery());
+
+            resolveStats(applicationName, fingerprint)
+                    .record(nanosPerQuery, rows[i], execInfo.isSuccess(), slow);
+
+            if (slow && logger.isWarnEnabled()) {
+                logger.warn("Slow statement ({} ms) app=[{}] conn={} query=[{}] params={}",
+                        Duration.ofNanos(elapsedNanos).toMillis(),
+                        applicationName,
+                        execInfo.getConnectionId(),
+                        fingerprint,
+                        redactedParameters(queryInfo));
+            }
+        }
+    }
+
+    private StatementStats resolveStats(String applicationName, String fingerprint) {
+        Map<String, StatementStats> stats = statsByApplication.computeIfAbsent(applicationName,
+                k -> new ConcurrentHashMap<>());
+
+        StatementStats statementStats = stats.get(fingerprint);
+        if (statementStats == null) {
+            String key = stats.size() < maxFingerprints ? fingerprint : OTHER;
+            statementStats = stats.computeIfAbsent(key, k -> new StatementStats(k, applicationName));
+        }
+        return statementStats;
+    }
+
+    /**
+     * Split the update counts of an execution over its queries. A prepared statement batch
+     * has a single query with one count per parameter set, while a multi-statement batch
+     * has one count per query. Counts that can't be attributed to a query are dropped.
+     */
+    private static long[] rowCounts(Object result, int numQueries) {
+        long[] rows = new long[numQueries];
+        if (result instanceof int[] counts) {
+            if (numQueries == 1) {
+                for (int count : counts) {
+                    rows[0] += Math.max(0, count);
+                }
+            } else if (counts.length == numQueries) {
+                for (int i = 0; i < numQueries; i++) {
+                    rows[i] = Math.max(0, counts[i]);
+                }
+            }
+        } else if (numQueries == 1) {
+            if (result instanceof Integer count) {
+                rows[0] = Math.max(0, count);
+            } else if (result instanceof Long count) {
+                rows[0] = Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    private static String applicationName(Statement statement) {
+        if (statement == null) {
+            return UNKNOWN;
+        }
+        try {
+            Connection connection = statement.getConnection();
+            // Tracked by the driver from server parameter status, no round-trip
+            String applicationName = connection.getClientInfo("ApplicationName");
+            return applicationName != null ? applicationName : UNKNOWN;
+        } catch (SQLException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static String redactedParameters(QueryInfo queryInfo) {
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        if (!parametersList.isEmpty()) {
+            for (ParameterSetOperation operation : parametersList.get(0)) {
+                Object[] args = operation.getArgs();
+                Object value = args.length > 1 ? args[1] : null;
+                joiner.add(value != null ? value.getClass().getSimpleName() : "null");
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * @return stats for all fingerprints and application names
+     */
+    public List<StatementStats> getStatementStats() {
+        List<StatementStats> all = new ArrayList<>();
+        statsByApplication.values().forEach(stats -> all.addAll(stats.values()));
+        return all;
+    }
+
+    /**
+     * @param limit max number of entries
+     * @return stats ordered by total execution time, highest first
+     */
+    public List<StatementStats> getTopStatementStats(int limit) {
+        return getStatementStats().stream()
+                .sorted(Comparator.comparing(StatementStats::getTotalTime).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @param limit max number of entries
+     * @return a text report of the top statements by total execution time
+     */
+    public String report(int limit) {
+        StringBuilder sb = new StringBuilder()
+                .append(String.format("%10s %10s %8s %8s %8s %8s %8s %6s %6s  %s%n",
+                        "total(ms)", "calls", "mean", "p50", "p99", "max", "rows", "errors", "slow",
+                        "application / fingerprint"));
+        getTopStatementStats(limit).forEach(stats ->
+                sb.append(String.format("%10d %10d %8.2f %8.2f %8.2f %8.2f %8d %6d %6d  %s / %s%n",
+                        stats.getTotalTime().toMillis(),
+                        stats.getCalls(),
+                        millis(stats.getMeanTime()),
+                        millis(stats.getPercentile(50)),
+                        millis(stats.getPercentile(99)),
+                        millis(stats.getMaxTime()),
+                        stats.getRows(),
+                        stats.getErrors(),
+                        stats.getSlowCalls(),
+                        stats.getApplicationName(),
+                        stats.getFingerprint())));
+        return sb.toString();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    public void clear() {
+        statsByApplication.clear();
+    }
+
+    public void setReportSize(int reportSize) {
+        this.reportSize = reportSize;
+    }
+
+    @Override
+    public void close() {
+        if (reportSize > 0 && !statsByApplication.isEmpty()) {
+            logger.info("Top {} statements by total time:\n{}", reportSize, report(reportSize));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.Assert;
+
+/**
+ * Data source that hands out connections either from the target data source or from
+ * a proxy of the same target, decided per connection by a runtime toggle. When the
+ * toggle is off, JDBC calls bypass the proxy layer completely. A connection keeps
+ * its path until closed.
+ */
+public class ToggleableDataSource extends DelegatingDataSource {
+    private final DataSource proxyDataSource;
+
+    private final BooleanSupplier proxyEnabled;
+
+    /**
+     * @param targetDataSource the data source used when the toggle is off
+     * @param proxyDataSource  the proxy of the target used when the toggle is on
+     * @param proxyEnabled     the toggle evaluated on each connection request
+     */
+    public ToggleableDataSource(DataSource targetDataSource, DataSource proxyDataSource,
+                                BooleanSupplier proxyEnabled) {
+        super(targetDataSource);
+        Assert.notNull(proxyDataSource, "proxyDataSource is null");
+        Assert.notNull(proxyEnabled, "proxyEnabled is null");
+        this.proxyDataSource = proxyDataSource;
+        this.proxyEnabled = proxyEnabled;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxyEnabled.getAsBoolean()
+                ? proxyDataSource.getConnection()
+                : super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxyEnabled.getAsBoolean()
+                ? proxyDataSource.getConnection(username, password)
+                : super.getConnection(username, password);
+    }
+}
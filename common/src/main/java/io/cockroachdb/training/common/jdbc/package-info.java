@@ -0,0 +1,4 @@
+/**
+ * Provides JDBC connection wrappers for the data source proxy chain.
+ */
+package io.cockroachdb.training.common.jdbc;
@@ -0,0 +1,97 @@
+package io.cockroachdb.training.common.metadata;
+
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of cluster version and feature capabilities at the time of probing.
+ */
+public final class ClusterMetadata {
+    private static final Pattern VERSION_PATTERN = Pattern.compile("v(\\d+)\\.(\\d+)");
+
+    public static ClusterMetadata unknown() {
+        return new ClusterMetadata("unknown", false, false, Instant.EPOCH);
+    }
+
+    private final String version;
+
+    private final boolean enterpriseLicense;
+
+    private final boolean readCommittedEnabled;
+
+    private final Instant probedAt;
+
+    private final int majorVersion;
+
+    private final int minorVersion;
+
+    public ClusterMetadata(String version, boolean enterpriseLicense, boolean readCommittedEnabled,
+                           Instant probedAt) {
+        this.version = version;
+        this.enterpriseLicense = enterpriseLicense;
+        this.readCommittedEnabled = readCommittedEnabled;
+        this.probedAt = probedAt;
+
+        Matcher matcher = VERSION_PATTERN.matcher(version);
+        if (isCockroachDB() && matcher.find()) {
+            this.majorVersion = Integer.parseInt(matcher.group(1));
+            this.minorVersion = Integer.parseInt(matcher.group(2));
+        } else {
+            this.majorVersion = 0;
+            this.minorVersion = 0;
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isCockroachDB() {
+        return version.contains("CockroachDB");
+    }
+
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public int getMinorVersion() {
+        return minorVersion;
+    }
+
+    public boolean isVersionAtLeast(int major, int minor) {
+        return majorVersion > major || (majorVersion == major && minorVersion >= minor);
+    }
+
+    public boolean hasEnterpriseLicense() {
+        return enterpriseLicense;
+    }
+
+    /**
+     * @return true if follower reads (AS OF SYSTEM TIME follower_read_timestamp()) are available
+     */
+    public boolean supportsFollowerReads() {
+        return isCockroachDB() && enterpriseLicense;
+    }
+
+    /**
+     * @return true if transactions can run at READ COMMITTED rather than being upgraded to SERIALIZABLE
+     */
+    public boolean supportsReadCommitted() {
+        return isCockroachDB() && isVersionAtLeast(23, 2) && readCommittedEnabled;
+    }
+
+    public Instant getProbedAt() {
+        return probedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterMetadata{" +
+               "version='" + version + '\'' +
+               ", enterpriseLicense=" + enterpriseLicense +
+               ", readCommittedEnabled=" + readCommittedEnabled +
+               ", probedAt=" + probedAt +
+               '}';
+    }
+}
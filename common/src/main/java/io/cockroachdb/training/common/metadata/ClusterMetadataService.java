@@ -0,0 +1,122 @@
+package io.cockroachdb.training.common.metadata;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Probes cluster metadata once and caches it for a given time-to-live. When the cached
+ * metadata expires, the stale snapshot is still returned while a single background
+ * refresh takes place, so callers never block on metadata queries after the first probe.
+ * A failed refresh keeps the previous snapshot, where a probe fails if any of the
+ * version or cluster setting queries fail.
+ */
+public class ClusterMetadataService {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMetadataService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration timeToLive;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile ClusterMetadata clusterMetadata;
+
+    public ClusterMetadataService(DataSource dataSource, Duration timeToLive) {
+        Assert.notNull(dataSource, "dataSource is null");
+        Assert.notNull(timeToLive, "timeToLive is null");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @return the cached cluster metadata, probing on first access
+     */
+    public ClusterMetadata getClusterMetadata() {
+        ClusterMetadata current = clusterMetadata;
+        if (current == null) {
+            synchronized (this) {
+                if (clusterMetadata == null) {
+                    ClusterMetadata metadata = probe();
+                    clusterMetadata = metadata != null ? metadata : ClusterMetadata.unknown();
+                }
+                return clusterMetadata;
+            }
+        }
+        if (isExpired(current) && refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("cluster-metadata-refresh").start(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    /**
+     * Probe the cluster and replace the cached metadata, unless the probe fails
+     * and a previous snapshot exists.
+     *
+     * @return the current cluster metadata
+     */
+    public ClusterMetadata refresh() {
+        ClusterMetadata metadata = probe();
+        synchronized (this) {
+            if (metadata != null) {
+                clusterMetadata = metadata;
+            } else if (clusterMetadata == null) {
+                clusterMetadata = ClusterMetadata.unknown();
+            }
+            return clusterMetadata;
+        }
+    }
+
+    private boolean isExpired(ClusterMetadata metadata) {
+        return metadata.getProbedAt().plus(timeToLive).isBefore(Instant.now());
+    }
+
+    /**
+     * @return the probed metadata or null if any query failed
+     */
+    private ClusterMetadata probe() {
+        final String version;
+        boolean enterpriseLicense = false;
+        boolean readCommittedEnabled = false;
+
+        try {
+            version = jdbcTemplate.queryForObject("select version()", String.class);
+
+            if (version != null && version.contains("CockroachDB")) {
+                enterpriseLicense = StringUtils.hasLength(
+                        showClusterSetting("enterprise.license"));
+                readCommittedEnabled = "true".equalsIgnoreCase(
+                        showClusterSetting("sql.txn.read_committed_isolation.enabled"));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Unable to probe cluster metadata: {}", e.getMessage());
+            return null;
+        }
+
+        ClusterMetadata metadata = new ClusterMetadata(
+                version != null ? version : "unknown", enterpriseLicense, readCommittedEnabled, Instant.now());
+
+        logger.debug("Probed {}", metadata);
+
+        return metadata;
+    }
+
+    private String showClusterSetting(String name) {
+        return jdbcTemplate.queryForObject("SHOW CLUSTER SETTING " + name, String.class);
+    }
+}
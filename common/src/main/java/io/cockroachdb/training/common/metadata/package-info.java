@@ -0,0 +1,4 @@
+/**
+ * Provides cached cluster metadata and feature capabilities probed from the database.
+ */
+package io.cockroachdb.training.common.metadata;
@@ -0,0 +1,38 @@
+package io.cockroachdb.training.common.retry;
+
+import java.time.Duration;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+/**
+ * Spring-retry sleeper recording time spent in backoff through {@link RetryMetrics},
+ * tagged by the method and SQL state of the current retry context.
+ */
+public class MeteredSleeper implements Sleeper {
+    private final Sleeper delegate = new ThreadWaitSleeper();
+
+    private final RetryMetrics retryMetrics;
+
+    public MeteredSleeper(RetryMetrics retryMetrics) {
+        this.retryMetrics = retryMetrics;
+    }
+
+    @Override
+    public void sleep(long backOffPeriod) throws InterruptedException {
+        final long startTime = System.nanoTime();
+        try {
+            delegate.sleep(backOffPeriod);
+        } finally {
+            RetryContext context = RetrySynchronizationManager.getContext();
+            if (context != null) {
+                retryMetrics.recordBackoff(
+                        RetryMetricsListener.methodName(context),
+                        RetryMetricsListener.sqlState(context.getLastThrowable()),
+                        Duration.ofNanos(System.nanoTime() - startTime));
+            }
+        }
+    }
+}
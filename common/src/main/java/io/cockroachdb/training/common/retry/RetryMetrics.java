@@ -0,0 +1,136 @@
+package io.cockroachdb.training.common.retry;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation shared by the AOP and spring-retry transaction retry paths.
+ * All meters are tagged by method signature and where applicable by SQL state.
+ * <ul>
+ *     <li>transaction.retry.calls - timer of retryable calls by outcome</li>
+ *     <li>transaction.retry.attempts - distribution of attempts per call by outcome</li>
+ *     <li>transaction.retry.backoff - timer of time spent in backoff between attempts</li>
+ *     <li>transaction.retry.errors - counter of SQL errors by transient or non-transient type</li>
+ * </ul>
+ * Call outcomes are {@code success} (first attempt), {@code recovered} (success after retry),
+ * {@code exhausted} (gave up after retries), {@code rejected} (failed fast by budget or circuit
+ * breaker) and {@code failed} (non-transient error).
+ * <p>
+ * Meters are registered once and cached by method and outcome or SQL state, to keep
+ * registry lookups and tag allocations off the retry path.
+ */
+public class RetryMetrics {
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_RECOVERED = "recovered";
+
+    public static final String OUTCOME_EXHAUSTED = "exhausted";
+
+    public static final String OUTCOME_REJECTED = "rejected";
+
+    public static final String OUTCOME_FAILED = "failed";
+
+    private static final String UNKNOWN_SQL_STATE = "unknown";
+
+    /**
+     * @return method name in the same format as AspectJ short signatures
+     */
+    public static String methodName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(..)";
+    }
+
+    private final MeterRegistry registry;
+
+    // Method -> outcome -> meters
+    private final Map<String, Map<String, CallMeters>> callMeters = new ConcurrentHashMap<>();
+
+    // Method -> SQL state -> timer
+    private final Map<String, Map<String, Timer>> backoffTimers = new ConcurrentHashMap<>();
+
+    // Method -> SQL state -> counters (transient, non-transient)
+    private final Map<String, Map<String, Counter[]>> errorCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Create metrics registered with the global composite registry, which is a no-op
+     * unless registries have been added to it.
+     */
+    public RetryMetrics() {
+        this(Metrics.globalRegistry);
+    }
+
+    public RetryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private static <V> Map<String, V> byMethod(Map<String, Map<String, V>> meters, String method) {
+        Map<String, V> map = meters.get(method);
+        return map != null ? map : meters.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+    }
+
+    private static String sqlStateTag(String sqlState) {
+        return sqlState != null ? sqlState : UNKNOWN_SQL_STATE;
+    }
+
+    public void recordCall(String method, String outcome, int attempts, Duration elapsedTime) {
+        CallMeters meters = byMethod(callMeters, method)
+                .computeIfAbsent(outcome, o -> new CallMeters(method, o));
+        meters.calls.record(elapsedTime);
+        meters.attempts.record(attempts);
+    }
+
+    public void recordBackoff(String method, String sqlState, Duration backoff) {
+        byMethod(backoffTimers, method)
+                .computeIfAbsent(sqlStateTag(sqlState), state -> Timer.builder("transaction.retry.backoff")
+                        .description("Time spent in backoff before retries")
+                        .tag("method", method)
+                        .tag("sqlstate", state)
+                        .register(registry))
+                .record(backoff);
+    }
+
+    public void recordError(String method, String sqlState, boolean transientError) {
+        byMethod(errorCounters, method)
+                .computeIfAbsent(sqlStateTag(sqlState), state -> new Counter[] {
+                        errorCounter(method, state, "transient"),
+                        errorCounter(method, state, "non-transient")
+                })[transientError ? 0 : 1]
+                .increment();
+    }
+
+    private Counter errorCounter(String method, String sqlState, String type) {
+        return Counter.builder("transaction.retry.errors")
+                .description("SQL errors in retryable calls")
+                .tag("method", method)
+                .tag("sqlstate", sqlState)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private class CallMeters {
+        final Timer calls;
+
+        final DistributionSummary attempts;
+
+        CallMeters(String method, String outcome) {
+            this.calls = Timer.builder("transaction.retry.calls")
+                    .description("Retryable calls by outcome")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry);
+            this.attempts = DistributionSummary.builder("transaction.retry.attempts")
+                    .description("Attempts per retryable call")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .serviceLevelObjectives(1, 2, 3, 5, 10)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.cockroachdb.training.common.retry;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+
+/**
+ * Spring-retry listener recording {@link RetryMetrics} for retryable calls.
+ */
+public class RetryMetricsListener implements RetryListener {
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    private static final String START_TIME = RetryMetricsListener.class.getName() + ".startTime";
+
+    static String methodName(RetryContext context) {
+        Object method = context.getAttribute(RetryOperationsInterceptor.METHOD);
+        if (method instanceof Method) {
+            return RetryMetrics.methodName((Method) method);
+        }
+        return String.valueOf(context.getAttribute(RetryContext.NAME));
+    }
+
+    static String sqlState(Throwable throwable) {
+        Throwable cause = throwable != null ? NestedExceptionUtils.getMostSpecificCause(throwable) : null;
+        return cause instanceof SQLException ? ((SQLException) cause).getSQLState() : null;
+    }
+
+    private final RetryMetrics retryMetrics;
+
+    public RetryMetricsListener(RetryMetrics retryMetrics) {
+        this.retryMetrics = retryMetrics;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(START_TIME, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        String sqlState = sqlState(throwable);
+        if (sqlState != null) {
+            retryMetrics.recordError(methodName(context), sqlState, SERIALIZATION_FAILURE.equals(sqlState));
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        Object startTime = context.getAttribute(START_TIME);
+        Duration elapsedTime = startTime != null
+                ? Duration.ofNanos(System.nanoTime() - (Long) startTime)
+                : Duration.ZERO;
+
+        int retries = context.getRetryCount();
+
+        final String outcome;
+        final int attempts;
+
+        if (throwable == null) {
+            outcome = retries > 0 ? RetryMetrics.OUTCOME_RECOVERED : RetryMetrics.OUTCOME_SUCCESS;
+            attempts = retries + 1;
+        } else {
+            outcome = SERIALIZATION_FAILURE.equals(sqlState(throwable))
+                    ? RetryMetrics.OUTCOME_EXHAUSTED : RetryMetrics.OUTCOME_FAILED;
+            attempts = retries;
+        }
+
+        retryMetrics.recordCall(methodName(context), outcome, attempts, elapsedTime);
+    }
+}
@@ -0,0 +1,86 @@
+package io.cockroachdb.training.common.retry;
+
+import java.time.Duration;
+
+/**
+ * Immutable snapshot of retry statistics for one method.
+ */
+public class RetryStats {
+    private final String method;
+
+    private final long calls;
+
+    private final long attempts;
+
+    private final long errors;
+
+    private final long successes;
+
+    private final long maxAttempts;
+
+    private final Duration retryLatency;
+
+    public RetryStats(String method, long calls, long attempts, long errors, long successes,
+                      long maxAttempts, Duration retryLatency) {
+        this.method = method;
+        this.calls = calls;
+        this.attempts = attempts;
+        this.errors = errors;
+        this.successes = successes;
+        this.maxAttempts = maxAttempts;
+        this.retryLatency = retryLatency;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return number of completed calls, regardless of outcome
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return number of attempts including retries
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return max number of attempts seen for a single call
+     */
+    public long getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return cumulative time spent in calls that needed at least one retry
+     */
+    public Duration getRetryLatency() {
+        return retryLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStats{" +
+               "method='" + method + '\'' +
+               ", calls=" + calls +
+               ", attempts=" + attempts +
+               ", errors=" + errors +
+               ", successes=" + successes +
+               ", maxAttempts=" + maxAttempts +
+               ", retryLatency=" + retryLatency +
+               '}';
+    }
+}
@@ -1,37 +1,136 @@
 package io.cockroachdb.training.common.retry;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
 
+/**
+ * Spring-retry listener keeping per-method retry statistics using striped counters,
+ * which avoids contention between concurrent callbacks. Snapshots are consistent per
+ * counter and resetting never loses concurrent updates, which are attributed to either
+ * the returned snapshot or the next.
+ */
 public class TransientExceptionRetryListener implements RetryListener {
-    private final AtomicInteger error = new AtomicInteger();
+    private static final String START_TIME = TransientExceptionRetryListener.class.getName() + ".startTime";
 
-    private final AtomicInteger success = new AtomicInteger();
+    private static class MethodStats {
+        final LongAdder calls = new LongAdder();
 
+        final LongAdder attempts = new LongAdder();
+
+        final LongAdder errors = new LongAdder();
+
+        final LongAdder successes = new LongAdder();
+
+        final LongAccumulator maxAttempts = new LongAccumulator(Long::max, 0);
+
+        final LongAdder retryLatencyNanos = new LongAdder();
+
+        RetryStats snapshot(String method, boolean reset) {
+            return reset
+                    ? new RetryStats(method, calls.sumThenReset(), attempts.sumThenReset(),
+                    errors.sumThenReset(), successes.sumThenReset(), maxAttempts.getThenReset(),
+                    Duration.ofNanos(retryLatencyNanos.sumThenReset()))
+                    : new RetryStats(method, calls.sum(), attempts.sum(),
+                    errors.sum(), successes.sum(), maxAttempts.get(),
+                    Duration.ofNanos(retryLatencyNanos.sum()));
+        }
+    }
+
+    private final Map<String, MethodStats> methodStats = new ConcurrentHashMap<>();
+
+    private MethodStats statsOf(RetryContext context) {
+        return methodStats.computeIfAbsent(RetryMetricsListener.methodName(context), k -> new MethodStats());
+    }
+
+    /**
+     * Reset all statistics.
+     */
     public void clear() {
-        error.set(0);
-        success.set(0);
+        snapshotAndReset();
     }
 
+    /**
+     * @return total number of failed attempts across all methods
+     */
     public int getError() {
-        return error.get();
+        return (int) methodStats.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
     }
 
+    /**
+     * @return total number of successful attempts across all methods
+     */
     public int getSuccess() {
-        return success.get();
+        return (int) methodStats.values().stream().mapToLong(stats -> stats.successes.sum()).sum();
+    }
+
+    /**
+     * @param method the method name in short signature format, for example {@code OrderServiceFacade.placeOrder(..)}
+     * @return statistics for the method, empty if not invoked
+     */
+    public RetryStats getStats(String method) {
+        MethodStats stats = methodStats.get(method);
+        return stats != null ? stats.snapshot(method, false) : new MethodStats().snapshot(method, false);
+    }
+
+    /**
+     * @return statistics for all methods, ordered by method name
+     */
+    public Map<String, RetryStats> getStats() {
+        Map<String, RetryStats> snapshot = new TreeMap<>();
+        methodStats.forEach((method, stats) -> snapshot.put(method, stats.snapshot(method, false)));
+        return snapshot;
+    }
+
+    /**
+     * @return statistics for all methods since the last reset, ordered by method name
+     */
+    public Map<String, RetryStats> snapshotAndReset() {
+        Map<String, RetryStats> snapshot = new TreeMap<>();
+        methodStats.forEach((method, stats) -> snapshot.put(method, stats.snapshot(method, true)));
+        return snapshot;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(START_TIME, System.nanoTime());
+        return true;
     }
 
     @Override
     public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
                                                  Throwable throwable) {
-        error.incrementAndGet();
+        MethodStats stats = statsOf(context);
+        stats.attempts.increment();
+        stats.errors.increment();
     }
 
     @Override
     public <T, E extends Throwable> void onSuccess(RetryContext context, RetryCallback<T, E> callback, T result) {
-        success.incrementAndGet();
+        MethodStats stats = statsOf(context);
+        stats.attempts.increment();
+        stats.successes.increment();
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        MethodStats stats = statsOf(context);
+        stats.calls.increment();
+
+        int attempts = throwable == null ? context.getRetryCount() + 1 : context.getRetryCount();
+        stats.maxAttempts.accumulate(attempts);
+
+        Object startTime = context.getAttribute(START_TIME);
+        if (attempts > 1 && startTime != null) {
+            stats.retryLatencyNanos.add(System.nanoTime() - (Long) startTime);
+        }
     }
 }
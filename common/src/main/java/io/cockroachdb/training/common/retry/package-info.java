@@ -1,4 +1,4 @@
 /**
- * Support classes for error classification when using spring-retry.
+ * Support classes for error classification and metrics when retrying transactions.
  */
 package io.cockroachdb.training.common.retry;
\ No newline at end of file
@@ -0,0 +1,101 @@
+package io.cockroachdb.training.common.admission;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+@Tag("unit-test")
+public class AdaptivePoolSizerTest {
+    // Unstarted pool with no active connections
+    private static HikariDataSource dataSource(int maxPoolSize) {
+        HikariPoolMXBean poolMXBean = (HikariPoolMXBean) Proxy.newProxyInstance(
+                AdaptivePoolSizerTest.class.getClassLoader(),
+                new Class<?>[] {HikariPoolMXBean.class},
+                (proxy, method, args) -> method.getReturnType() == int.class ? 0 : null);
+        HikariDataSource dataSource = new HikariDataSource() {
+            @Override
+            public HikariPoolMXBean getHikariPoolMXBean() {
+                return poolMXBean;
+            }
+        };
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        return dataSource;
+    }
+
+    @Test
+    public void whenAdmissionWaitAboveTarget_thenGrow() throws Exception {
+        HikariDataSource dataSource = dataSource(4);
+        AdmissionController controller = new AdmissionController(1, Duration.ofSeconds(5));
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, controller, 1, 4, 4,
+                Duration.ofMillis(10), Duration.ofSeconds(1));
+
+        controller.acquire();
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+            controller.acquire();
+            controller.release();
+        });
+        TimeUnit.MILLISECONDS.sleep(50);
+        controller.release();
+        waiter.get(5, TimeUnit.SECONDS);
+
+        sizer.resize();
+
+        Assertions.assertEquals(5, dataSource.getMaximumPoolSize());
+        Assertions.assertEquals(5, controller.getLimit());
+    }
+
+    @Test
+    public void whenCallersRejected_thenGrow() throws Exception {
+        HikariDataSource dataSource = dataSource(4);
+        AdmissionController controller = new AdmissionController(1, Duration.ofMillis(10));
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, controller, 1, 4, 4,
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        controller.acquire();
+        CompletableFuture<Void> rejected = CompletableFuture.runAsync(controller::acquire);
+        Assertions.assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        controller.release();
+
+        // Rejected wait alone is not counted in the average wait of admitted callers
+        Assertions.assertTrue(controller.getWaitTime().compareTo(Duration.ofSeconds(1)) < 0);
+
+        sizer.resize();
+
+        Assertions.assertEquals(5, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    public void whenAdmittedWithoutWaiting_thenShrink() {
+        HikariDataSource dataSource = dataSource(8);
+        AdmissionController controller = new AdmissionController(8, Duration.ofSeconds(1));
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, controller, 4, 4, 4,
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        controller.acquire();
+        controller.release();
+        sizer.resize();
+
+        Assertions.assertEquals(7, dataSource.getMaximumPoolSize());
+        Assertions.assertEquals(7, controller.getLimit());
+    }
+
+    @Test
+    public void whenIdle_thenKeepSize() {
+        HikariDataSource dataSource = dataSource(8);
+        AdmissionController controller = new AdmissionController(8, Duration.ofSeconds(1));
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, controller, 4, 4, 4,
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        sizer.resize();
+
+        Assertions.assertEquals(8, dataSource.getMaximumPoolSize());
+    }
+}
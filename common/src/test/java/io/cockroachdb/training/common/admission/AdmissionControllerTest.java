@@ -0,0 +1,71 @@
+package io.cockroachdb.training.common.admission;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("unit-test")
+public class AdmissionControllerTest {
+    @Test
+    public void whenNestedAcquire_thenHoldSinglePermit() {
+        AdmissionController controller = new AdmissionController(2, Duration.ofMillis(10));
+
+        controller.acquire();
+        controller.acquire();
+        Assertions.assertEquals(1, controller.getAvailablePermits());
+        Assertions.assertEquals(1, controller.getAdmitted());
+
+        controller.release();
+        Assertions.assertEquals(1, controller.getAvailablePermits());
+        controller.release();
+        Assertions.assertEquals(2, controller.getAvailablePermits());
+
+        Assertions.assertThrows(IllegalStateException.class, controller::release);
+    }
+
+    @Test
+    public void whenLimitChanged_thenResizePermits() {
+        AdmissionController controller = new AdmissionController(2, Duration.ofMillis(10));
+
+        controller.setLimit(4);
+        Assertions.assertEquals(4, controller.getLimit());
+        Assertions.assertEquals(4, controller.getAvailablePermits());
+
+        controller.acquire();
+        controller.setLimit(1);
+        // The admitted caller keeps its permit beyond the reduced limit
+        Assertions.assertEquals(0, controller.getAvailablePermits());
+
+        CompletableFuture<Void> other = CompletableFuture.runAsync(controller::acquire);
+        Assertions.assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, controller.getRejected());
+
+        controller.release();
+        Assertions.assertEquals(1, controller.getAvailablePermits());
+    }
+
+    @Test
+    public void whenRejected_thenTrackWaitSeparately() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionController controller = new AdmissionController(1, Duration.ofMillis(50));
+        controller.bindTo(registry);
+
+        controller.acquire();
+        CompletableFuture<Void> other = CompletableFuture.runAsync(controller::acquire);
+        Exception e = Assertions.assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(CannotGetJdbcConnectionException.class, e.getCause());
+        controller.release();
+
+        Assertions.assertTrue(controller.getWaitTime().compareTo(Duration.ofMillis(50)) < 0);
+        Assertions.assertTrue(controller.getRejectedWaitTime().compareTo(Duration.ofMillis(50)) >= 0);
+        Assertions.assertEquals(1, registry.get("admission.admitted").functionCounter().count());
+        Assertions.assertEquals(1, registry.get("admission.rejected").functionCounter().count());
+    }
+}
@@ -0,0 +1,66 @@
+package io.cockroachdb.training.common.backoff;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class AdaptiveBackoffStrategyTest {
+    private final BackoffStrategy fixed = (attempt, previousBackoff, baseBackoff, maxBackoff) -> 1000;
+
+    @Test
+    public void whenComputingBackoff_thenDontSample() {
+        AdaptiveBackoffStrategy strategy = new AdaptiveBackoffStrategy(fixed, 0.1, 3);
+        strategy.onRecovery(1, Duration.ZERO);
+        double scale = strategy.getScale();
+
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            Assertions.assertEquals((long) (1000 * scale), strategy.nextBackoff(attempt, 0, 10, 5000));
+        }
+        Assertions.assertEquals(scale, strategy.getScale());
+    }
+
+    @Test
+    public void whenRecoveringAtFirstRetry_thenShrinkToMinScale() {
+        AdaptiveBackoffStrategy strategy = new AdaptiveBackoffStrategy(fixed, 0.1, 3);
+        Assertions.assertEquals(1.0, strategy.getScale());
+
+        for (int i = 0; i < 100; i++) {
+            strategy.onRecovery(1, Duration.ZERO);
+        }
+
+        Assertions.assertEquals(0.1, strategy.getScale(), 0.01);
+    }
+
+    @Test
+    public void whenRecoveringBelowFullScaleRetries_thenScaleLinearly() {
+        AdaptiveBackoffStrategy strategy = new AdaptiveBackoffStrategy(fixed, 0.1, 3);
+
+        for (int i = 0; i < 100; i++) {
+            strategy.onRecovery(2, Duration.ZERO);
+        }
+
+        Assertions.assertEquals(0.5, strategy.getScale(), 0.01);
+        Assertions.assertEquals(500, strategy.nextBackoff(1, 0, 10, 5000), 10);
+    }
+
+    @Test
+    public void whenExhausted_thenSampleOnceAndGrowBack() {
+        AdaptiveBackoffStrategy strategy = new AdaptiveBackoffStrategy(fixed, 0.1, 3);
+        for (int i = 0; i < 100; i++) {
+            strategy.onRecovery(1, Duration.ZERO);
+        }
+        Assertions.assertEquals(0.1, strategy.getScale(), 0.01);
+
+        // One exhausted call with 4 retries moves the average by one sample, from 1 to 1.6
+        strategy.onExhaustion(4, Duration.ZERO);
+        Assertions.assertEquals(0.6 / 2, strategy.getScale(), 0.01);
+
+        for (int i = 0; i < 100; i++) {
+            strategy.onExhaustion(10, Duration.ZERO);
+        }
+        Assertions.assertEquals(1.0, strategy.getScale());
+    }
+}
@@ -0,0 +1,126 @@
+package io.cockroachdb.training.common.budget;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class CircuitBreakerTest {
+    private static void trip(CircuitBreaker circuitBreaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onTransientError();
+        }
+    }
+
+    @Test
+    public void whenFailureRatioBelowThreshold_thenStayClosed() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 2);
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+            if (i % 3 == 0) {
+                circuitBreaker.onTransientError();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void whenFailureRatioAboveThreshold_thenOpenAndReject() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 2);
+
+        trip(circuitBreaker, 3);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "Below minimum calls");
+
+        trip(circuitBreaker, 1);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(1, circuitBreaker.getRejectedCalls());
+    }
+
+    @Test
+    public void whenOpenDurationPassedAndProbesSucceed_thenClose() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 2, 0.5, Duration.ZERO, 2);
+
+        trip(circuitBreaker, 2);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess();
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(0, circuitBreaker.getFailureRatio());
+    }
+
+    @Test
+    public void whenProbeFails_thenOpenAgain() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 2, 0.5, Duration.ofMillis(50), 2);
+
+        trip(circuitBreaker, 2);
+
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+
+        sleep(Duration.ofMillis(60));
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onTransientError();
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void whenProbesExhausted_thenRejectUntilReleased() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 2, 0.5, Duration.ofMillis(50), 1);
+
+        trip(circuitBreaker, 2);
+        sleep(Duration.ofMillis(60));
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission(), "Only one probe");
+
+        circuitBreaker.releasePermission();
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(), "Probe given back");
+        circuitBreaker.onSuccess();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void whenProbesStale_thenReissue() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 2, 0.5, Duration.ofMillis(50), 1);
+
+        trip(circuitBreaker, 2);
+        sleep(Duration.ofMillis(60));
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+
+        // Probe outcome never reported
+        sleep(Duration.ofMillis(60));
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Assertions.fail(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.cockroachdb.training.common.budget;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("unit-test")
+public class RetryGovernorTest {
+    @Test
+    public void whenRetryBudgetExhaustedWhileHalfOpen_thenProbesNotLeaked() throws InterruptedException {
+        // Empty retry budget that never refills
+        RetryGovernor retryGovernor = new RetryGovernor(0, 0, 10, 2, 0.5, Duration.ofMillis(50), 1);
+
+        retryGovernor.onTransientError("m");
+        retryGovernor.onTransientError("m");
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, retryGovernor.getCircuitBreakerState(RetryGovernor.GLOBAL));
+        Assertions.assertFalse(retryGovernor.tryAcquireCall("m"));
+
+        Thread.sleep(60);
+
+        // Takes both half-open probes, then gives them back on the exhausted budget
+        Assertions.assertFalse(retryGovernor.tryAcquireRetry("m"));
+
+        Assertions.assertTrue(retryGovernor.tryAcquireCall("m"), "Probe leaked");
+        retryGovernor.onSuccess("m");
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED,
+                retryGovernor.getCircuitBreakerState(RetryGovernor.GLOBAL));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED,
+                retryGovernor.getCircuitBreakerState("m"));
+    }
+
+    @Test
+    public void whenCallReleasedWithoutOutcome_thenProbeReissued() throws InterruptedException {
+        RetryGovernor retryGovernor = new RetryGovernor(10, 0.2, 10, 2, 0.5, Duration.ofMillis(50), 1);
+
+        retryGovernor.onTransientError("m");
+        retryGovernor.onTransientError("m");
+
+        Thread.sleep(60);
+
+        Assertions.assertTrue(retryGovernor.tryAcquireCall("m"));
+        Assertions.assertFalse(retryGovernor.tryAcquireCall("m"), "Only one probe");
+
+        // For example an Error thrown by the call
+        retryGovernor.release("m");
+
+        Assertions.assertTrue(retryGovernor.tryAcquireCall("m"));
+    }
+
+    @Test
+    public void whenUnlimited_thenAlwaysPermitWithoutState() {
+        RetryGovernor retryGovernor = RetryGovernor.unlimited();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        retryGovernor.bindTo(registry);
+        Assertions.assertTrue(registry.getMeters().isEmpty());
+
+        for (int i = 0; i < 1000; i++) {
+            retryGovernor.onTransientError("m");
+            Assertions.assertTrue(retryGovernor.tryAcquireRetry("m"));
+        }
+        Assertions.assertTrue(retryGovernor.tryAcquireCall("m"));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, retryGovernor.getCircuitBreakerState("m"));
+    }
+}
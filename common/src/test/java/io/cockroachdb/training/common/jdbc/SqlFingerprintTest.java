@@ -0,0 +1,73 @@
+package io.cockroachdb.training.common.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class SqlFingerprintTest {
+    @Test
+    public void whenStringLiterals_thenReplace() {
+        Assertions.assertEquals("select * from customer where email = ? and name = ?",
+                SqlFingerprint.normalize("select * from customer where email = 'a@b.c' and name = 'O''Brien'"));
+    }
+
+    @Test
+    public void whenNumericLiterals_thenReplace() {
+        Assertions.assertEquals("update product set price = ?, inventory = inventory - ? where version = ?",
+                SqlFingerprint.normalize("update product set price = 10.50, inventory = inventory - 2 "
+                                         + "where version = 1e3"));
+    }
+
+    @Test
+    public void whenNegativeNumbers_thenReplaceWithSign() {
+        Assertions.assertEquals("select * from t where a = ? and b=? and c < ?",
+                SqlFingerprint.normalize("select * from t where a = -5 and b=-1.5 and c < -10"));
+        // Subtraction of a literal keeps the operator
+        Assertions.assertEquals("select a-? from t",
+                SqlFingerprint.normalize("select a-1 from t"));
+    }
+
+    @Test
+    public void whenPlaceholders_thenReplace() {
+        Assertions.assertEquals("select * from product where id = ? and sku = ?",
+                SqlFingerprint.normalize("select * from product where id = $1 and sku = $12"));
+    }
+
+    @Test
+    public void whenInLists_thenCollapse() {
+        Assertions.assertEquals("select * from product where id in (?)",
+                SqlFingerprint.normalize("select * from product where id in (1, 2, 3)"));
+        Assertions.assertEquals("select * from product where id in (?)",
+                SqlFingerprint.normalize("select * from product where id in ($1,$2)"));
+        Assertions.assertEquals(SqlFingerprint.normalize("select * from t where id in (?, ?)"),
+                SqlFingerprint.normalize("select * from t where id in (?, ?, ?, ?, ?)"));
+    }
+
+    @Test
+    public void whenMultiRowValues_thenCollapse() {
+        Assertions.assertEquals("insert into product (id,name) values (?)",
+                SqlFingerprint.normalize("insert into product (id,name) values (1, 'a'), (2, 'b'), (3, 'c')"));
+        Assertions.assertEquals(
+                SqlFingerprint.normalize("insert into t (a) values ($1)"),
+                SqlFingerprint.normalize("insert into t (a) values ($1), ($2), ($3)"));
+    }
+
+    @Test
+    public void whenIdentifiersWithDigits_thenKeep() {
+        Assertions.assertEquals("select col1, t2.c_3 from table1 t2 where t2.col1 = ?",
+                SqlFingerprint.normalize("select col1, t2.c_3 from table1 t2 where t2.col1 = 42"));
+    }
+
+    @Test
+    public void whenCasts_thenKeepType() {
+        Assertions.assertEquals("select ?::INT8, ?::UUID, ?::DECIMAL(10,2)",
+                SqlFingerprint.normalize("select 1::INT8, $1::UUID, '1.5'::DECIMAL(10,2)"));
+    }
+
+    @Test
+    public void whenWhitespace_thenCollapse() {
+        Assertions.assertEquals("select * from t where a = ?",
+                SqlFingerprint.normalize("  select *\n  from t\twhere a =   $1 "));
+    }
+}
@@ -0,0 +1,60 @@
+package io.cockroachdb.training.common.jdbc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+@Tag("unit-test")
+public class StatementStatsListenerTest {
+    private final StatementStatsListener listener = new StatementStatsListener("test", Duration.ZERO, 100);
+
+    private void execute(Object result, List<QueryInfo> queries) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setSuccess(true);
+        executionInfo.setResult(result);
+        listener.beforeQuery(executionInfo, queries);
+        listener.afterQuery(executionInfo, queries);
+    }
+
+    private Map<String, Long> rowsByFingerprint() {
+        return listener.getStatementStats().stream()
+                .collect(Collectors.toMap(StatementStats::getFingerprint, StatementStats::getRows));
+    }
+
+    @Test
+    public void whenPreparedBatch_thenSumCountsForSingleQuery() {
+        execute(new int[] {1, 1, 1}, List.of(new QueryInfo("update t set a = $1 where id = $2")));
+
+        Assertions.assertEquals(Map.of("update t set a = ? where id = ?", 3L), rowsByFingerprint());
+    }
+
+    @Test
+    public void whenMultiStatementBatch_thenAttributeCountsPerQuery() {
+        execute(new int[] {5, 2}, List.of(
+                new QueryInfo("delete from a where x = 1"),
+                new QueryInfo("delete from b where y = 2")));
+
+        Assertions.assertEquals(Map.of(
+                "delete from a where x = ?", 5L,
+                "delete from b where y = ?", 2L), rowsByFingerprint());
+    }
+
+    @Test
+    public void whenCountsNotAligned_thenDropRows() {
+        execute(7, List.of(
+                new QueryInfo("delete from a where x = 1"),
+                new QueryInfo("delete from b where y = 2")));
+
+        Assertions.assertEquals(Map.of(
+                "delete from a where x = ?", 0L,
+                "delete from b where y = ?", 0L), rowsByFingerprint());
+    }
+}
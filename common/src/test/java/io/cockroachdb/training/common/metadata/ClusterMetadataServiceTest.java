@@ -0,0 +1,182 @@
+package io.cockroachdb.training.common.metadata;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class ClusterMetadataServiceTest {
+    private static final String VERSION_QUERY = "select version()";
+
+    private static final String LICENSE_QUERY = "SHOW CLUSTER SETTING enterprise.license";
+
+    private static final String READ_COMMITTED_QUERY
+            = "SHOW CLUSTER SETTING sql.txn.read_committed_isolation.enabled";
+
+    private static final String COCKROACHDB_VERSION
+            = "CockroachDB CCL v24.1.0 (x86_64-pc-linux-gnu, built 2024/05/15 21:28:29, go1.22.2)";
+
+    // Query results by SQL, where an SQLException value fails the query
+    private final Map<String, Object> results = new ConcurrentHashMap<>();
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private final DataSource dataSource = proxy(DataSource.class, (method, args) ->
+            "getConnection".equals(method) ? proxy(Connection.class, (connectionMethod, connectionArgs) ->
+                    "createStatement".equals(connectionMethod) ? proxy(Statement.class, this::executeQuery) : null)
+                    : null);
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        return (T) Proxy.newProxyInstance(ClusterMetadataServiceTest.class.getClassLoader(), new Class[] {type},
+                (proxy, method, args) -> {
+                    Object result = invocation.invoke(method.getName(), args);
+                    if (result == null && method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (result == null && method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    return result;
+                });
+    }
+
+    private Object executeQuery(String method, Object[] args) throws SQLException {
+        if (!"executeQuery".equals(method)) {
+            return null;
+        }
+        String sql = (String) args[0];
+        queries.add(sql);
+
+        Object result = results.get(sql);
+        if (result instanceof SQLException e) {
+            throw e;
+        }
+        if (result == null) {
+            throw new SQLException("Unexpected query: " + sql, "42601");
+        }
+
+        boolean[] consumed = new boolean[1];
+        return proxy(ResultSet.class, (resultSetMethod, resultSetArgs) -> switch (resultSetMethod) {
+            case "next" -> {
+                boolean next = !consumed[0];
+                consumed[0] = true;
+                yield next;
+            }
+            case "getString" -> result;
+            case "getMetaData" -> proxy(ResultSetMetaData.class, (metaDataMethod, metaDataArgs) ->
+                    "getColumnCount".equals(metaDataMethod) ? 1 : null);
+            default -> null;
+        });
+    }
+
+    private void givenCockroachDB(String license, String readCommitted) {
+        results.put(VERSION_QUERY, COCKROACHDB_VERSION);
+        results.put(LICENSE_QUERY, license);
+        results.put(READ_COMMITTED_QUERY, readCommitted);
+    }
+
+    @Test
+    public void whenCockroachDB_thenProbeVersionAndSettings() {
+        givenCockroachDB("crl-0-xyz", "true");
+
+        ClusterMetadata metadata = new ClusterMetadataService(dataSource, Duration.ofMinutes(5))
+                .getClusterMetadata();
+
+        Assertions.assertTrue(metadata.isCockroachDB());
+        Assertions.assertEquals(24, metadata.getMajorVersion());
+        Assertions.assertEquals(1, metadata.getMinorVersion());
+        Assertions.assertTrue(metadata.hasEnterpriseLicense());
+        Assertions.assertTrue(metadata.supportsFollowerReads());
+        Assertions.assertTrue(metadata.supportsReadCommitted());
+    }
+
+    @Test
+    public void whenNotCockroachDB_thenSkipClusterSettings() {
+        results.put(VERSION_QUERY, "PostgreSQL 16.2");
+
+        ClusterMetadata metadata = new ClusterMetadataService(dataSource, Duration.ofMinutes(5))
+                .getClusterMetadata();
+
+        Assertions.assertFalse(metadata.isCockroachDB());
+        Assertions.assertFalse(metadata.supportsReadCommitted());
+        Assertions.assertEquals(List.of(VERSION_QUERY), queries);
+    }
+
+    @Test
+    public void whenCachedMetadataNotExpired_thenDontProbeAgain() {
+        givenCockroachDB("", "false");
+
+        ClusterMetadataService service = new ClusterMetadataService(dataSource, Duration.ofMinutes(5));
+        ClusterMetadata metadata = service.getClusterMetadata();
+
+        Assertions.assertSame(metadata, service.getClusterMetadata());
+        Assertions.assertFalse(metadata.hasEnterpriseLicense());
+        Assertions.assertEquals(3, queries.size());
+    }
+
+    @Test
+    public void whenSettingProbeFails_thenKeepPreviousSnapshot() {
+        givenCockroachDB("crl-0-xyz", "true");
+
+        ClusterMetadataService service = new ClusterMetadataService(dataSource, Duration.ofMinutes(5));
+        ClusterMetadata metadata = service.getClusterMetadata();
+
+        results.put(LICENSE_QUERY, new SQLException("connection reset", "08006"));
+
+        Assertions.assertSame(metadata, service.refresh());
+        Assertions.assertSame(metadata, service.getClusterMetadata());
+        Assertions.assertTrue(service.getClusterMetadata().hasEnterpriseLicense());
+    }
+
+    @Test
+    public void whenVersionProbeFails_thenKeepPreviousSnapshot() {
+        givenCockroachDB("crl-0-xyz", "true");
+
+        ClusterMetadataService service = new ClusterMetadataService(dataSource, Duration.ofMinutes(5));
+        ClusterMetadata metadata = service.getClusterMetadata();
+
+        results.put(VERSION_QUERY, new SQLException("connection reset", "08006"));
+
+        Assertions.assertSame(metadata, service.refresh());
+    }
+
+    @Test
+    public void whenFirstProbeFails_thenUnknownUntilRefreshed() {
+        givenCockroachDB("crl-0-xyz", "true");
+        results.put(READ_COMMITTED_QUERY, new SQLException("connection reset", "08006"));
+
+        ClusterMetadataService service = new ClusterMetadataService(dataSource, Duration.ofMinutes(5));
+
+        // Accessing the expired unknown snapshot again would start a background refresh
+        ClusterMetadata unknown = service.getClusterMetadata();
+        Assertions.assertFalse(unknown.isCockroachDB());
+        Assertions.assertFalse(unknown.hasEnterpriseLicense());
+
+        results.put(READ_COMMITTED_QUERY, "true");
+
+        ClusterMetadata metadata = service.refresh();
+        Assertions.assertTrue(metadata.isCockroachDB());
+        Assertions.assertTrue(metadata.supportsReadCommitted());
+        Assertions.assertSame(metadata, service.getClusterMetadata());
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(String method, Object[] args) throws SQLException;
+    }
+}
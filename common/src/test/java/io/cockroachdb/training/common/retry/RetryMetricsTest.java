@@ -0,0 +1,51 @@
+package io.cockroachdb.training.common.retry;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("unit-test")
+public class RetryMetricsTest {
+    @Test
+    public void whenRecordingRepeatedly_thenReuseMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RetryMetrics retryMetrics = new RetryMetrics(registry);
+
+        for (int i = 0; i < 3; i++) {
+            retryMetrics.recordCall("m", RetryMetrics.OUTCOME_RECOVERED, 2, Duration.ofMillis(5));
+            retryMetrics.recordBackoff("m", "40001", Duration.ofMillis(10));
+            retryMetrics.recordError("m", "40001", true);
+        }
+        retryMetrics.recordError("m", "23505", false);
+
+        Assertions.assertEquals(3, registry.get("transaction.retry.calls")
+                .tag("outcome", RetryMetrics.OUTCOME_RECOVERED).timer().count());
+        Assertions.assertEquals(6, registry.get("transaction.retry.attempts")
+                .tag("outcome", RetryMetrics.OUTCOME_RECOVERED).summary().totalAmount());
+        Assertions.assertEquals(3, registry.get("transaction.retry.backoff")
+                .tag("sqlstate", "40001").timer().count());
+        Assertions.assertEquals(3, registry.get("transaction.retry.errors")
+                .tags("sqlstate", "40001", "type", "transient").counter().count());
+        Assertions.assertEquals(1, registry.get("transaction.retry.errors")
+                .tags("sqlstate", "23505", "type", "non-transient").counter().count());
+    }
+
+    @Test
+    public void whenSqlStateMissing_thenTagAsUnknown() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RetryMetrics retryMetrics = new RetryMetrics(registry);
+
+        retryMetrics.recordError("m", null, false);
+        retryMetrics.recordBackoff("m", null, Duration.ofMillis(1));
+
+        Assertions.assertEquals(1, registry.get("transaction.retry.errors")
+                .tag("sqlstate", "unknown").counter().count());
+        Assertions.assertEquals(1, registry.get("transaction.retry.backoff")
+                .tag("sqlstate", "unknown").timer().count());
+        Assertions.assertTrue(registry.find("transaction.retry.errors").tag("sqlstate", "null").meters().isEmpty());
+    }
+}
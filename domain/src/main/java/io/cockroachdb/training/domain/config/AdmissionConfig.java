@@ -0,0 +1,63 @@
+package io.cockroachdb.training.domain.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.cockroachdb.training.common.admission.AdaptivePoolSizer;
+import io.cockroachdb.training.common.admission.AdmissionController;
+import io.cockroachdb.training.common.aspect.AdmissionControlAspect;
+
+/**
+ * Limits concurrent transactional work to the number of pool connections, with an
+ * optional adaptive mode that resizes the pool based on admission wait time.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+@ConditionalOnProperty(name = "training.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+    @Value("${training.admission.timeout:30s}")
+    private Duration timeout;
+
+    @Value("${training.admission.adaptive.min-pool-size:4}")
+    private int minPoolSize;
+
+    @Value("${training.admission.adaptive.cluster-vcpus:0}")
+    private int clusterVCPUs;
+
+    @Value("${training.admission.adaptive.connections-per-vcpu:4}")
+    private int connectionsPerVCPU;
+
+    @Value("${training.admission.adaptive.target-wait-time:50ms}")
+    private Duration targetWaitTime;
+
+    @Value("${training.admission.adaptive.interval:5s}")
+    private Duration interval;
+
+    @Bean
+    public AdmissionController admissionController(HikariDataSource dataSource) {
+        return new AdmissionController(dataSource.getMaximumPoolSize(), timeout);
+    }
+
+    @Bean
+    public AdmissionControlAspect admissionControlAspect(AdmissionController admissionController) {
+        return new AdmissionControlAspect(admissionController);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "training.admission.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(HikariDataSource dataSource,
+                                               AdmissionController admissionController) {
+        // Assume a local single node cluster if not set
+        int vCPUs = clusterVCPUs > 0 ? clusterVCPUs : Runtime.getRuntime().availableProcessors();
+        return new AdaptivePoolSizer(dataSource, admissionController,
+                minPoolSize, vCPUs, connectionsPerVCPU, targetWaitTime, interval);
+    }
+}
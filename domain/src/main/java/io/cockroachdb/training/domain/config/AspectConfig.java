@@ -1,7 +1,10 @@
 package io.cockroachdb.training.domain.config;
 
+import java.time.Duration;
+
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,13 +12,22 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Role;
 
 import io.cockroachdb.training.common.aspect.TransactionDecoratorAspect;
+import io.cockroachdb.training.common.metadata.ClusterMetadataService;
 
 @Configuration
 @EnableAspectJAutoProxy(proxyTargetClass = true)
 @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
 public class AspectConfig {
     @Bean
-    public TransactionDecoratorAspect transactionDecoratorAspect(DataSource dataSource) {
-        return new TransactionDecoratorAspect(dataSource);
+    public ClusterMetadataService clusterMetadataService(
+            DataSource dataSource,
+            @Value("${training.cluster-metadata.time-to-live:5m}") Duration timeToLive) {
+        return new ClusterMetadataService(dataSource, timeToLive);
+    }
+
+    @Bean
+    public TransactionDecoratorAspect transactionDecoratorAspect(DataSource dataSource,
+                                                                 ClusterMetadataService clusterMetadataService) {
+        return new TransactionDecoratorAspect(dataSource, clusterMetadataService);
     }
 }
@@ -1,14 +1,27 @@
 package io.cockroachdb.training.domain.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Role;
 
-import io.cockroachdb.training.common.aspect.ExponentialBackoffRetryHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import io.cockroachdb.training.common.aspect.BackoffRetryHandler;
 import io.cockroachdb.training.common.aspect.RetryHandler;
 import io.cockroachdb.training.common.aspect.TransactionRetryAspect;
+import io.cockroachdb.training.common.backoff.AdaptiveBackoffStrategy;
+import io.cockroachdb.training.common.backoff.BackoffStrategy;
+import io.cockroachdb.training.common.backoff.DecorrelatedJitterBackoffStrategy;
+import io.cockroachdb.training.common.backoff.ExponentialBackoffStrategy;
+import io.cockroachdb.training.common.backoff.FixedBackoffStrategy;
+import io.cockroachdb.training.common.backoff.FullJitterBackoffStrategy;
+import io.cockroachdb.training.common.budget.RetryGovernor;
+import io.cockroachdb.training.common.retry.RetryMetrics;
 
 /**
  * Alternative to spring-retry.
@@ -17,13 +30,70 @@ import io.cockroachdb.training.common.aspect.TransactionRetryAspect;
 @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
 @Profile("aop-retry")
 public class AspectRetryConfig {
+    @Value("${training.retry.backoff-strategy:decorrelated-jitter}")
+    private String backoffStrategy;
+
+    @Value("${training.retry.adaptive-backoff:false}")
+    private boolean adaptiveBackoff;
+
+    @Value("${training.retry.budget.enabled:false}")
+    private boolean budgetEnabled;
+
+    @Value("${training.retry.budget.max-tokens:100}")
+    private int budgetMaxTokens;
+
+    @Value("${training.retry.budget.retry-ratio:0.2}")
+    private double budgetRetryRatio;
+
+    @Value("${training.retry.circuit-breaker.window-size:100}")
+    private int circuitBreakerWindowSize;
+
+    @Value("${training.retry.circuit-breaker.minimum-calls:20}")
+    private int circuitBreakerMinimumCalls;
+
+    @Value("${training.retry.circuit-breaker.failure-threshold:0.5}")
+    private double circuitBreakerFailureThreshold;
+
+    @Value("${training.retry.circuit-breaker.open-duration:5s}")
+    private Duration circuitBreakerOpenDuration;
+
+    @Value("${training.retry.circuit-breaker.probe-calls:5}")
+    private int circuitBreakerProbeCalls;
+
+    @Bean
+    public TransactionRetryAspect transactionRetryAspect(RetryMetrics retryMetrics) {
+        return new TransactionRetryAspect(transactionRetryHandler(), retryGovernor(), retryMetrics);
+    }
+
+    @Bean
+    public RetryMetrics retryMetrics(MeterRegistry meterRegistry) {
+        return new RetryMetrics(meterRegistry);
+    }
+
     @Bean
-    public TransactionRetryAspect transactionRetryAspect() {
-        return new TransactionRetryAspect(transactionRetryHandler());
+    public RetryGovernor retryGovernor() {
+        if (!budgetEnabled) {
+            return RetryGovernor.unlimited();
+        }
+        return new RetryGovernor(budgetMaxTokens, budgetRetryRatio,
+                circuitBreakerWindowSize, circuitBreakerMinimumCalls, circuitBreakerFailureThreshold,
+                circuitBreakerOpenDuration, circuitBreakerProbeCalls);
     }
 
     @Bean
     public RetryHandler transactionRetryHandler() {
-        return new ExponentialBackoffRetryHandler();
+        return new BackoffRetryHandler(backoffStrategy());
+    }
+
+    @Bean
+    public BackoffStrategy backoffStrategy() {
+        BackoffStrategy strategy = switch (backoffStrategy) {
+            case "decorrelated-jitter" -> new DecorrelatedJitterBackoffStrategy();
+            case "full-jitter" -> new FullJitterBackoffStrategy();
+            case "fixed" -> new FixedBackoffStrategy();
+            case "exponential" -> new ExponentialBackoffStrategy();
+            default -> throw new IllegalArgumentException("Unknown backoff strategy: " + backoffStrategy);
+        };
+        return adaptiveBackoff ? new AdaptiveBackoffStrategy(strategy) : strategy;
     }
 }
@@ -1,7 +1,13 @@
 package io.cockroachdb.training.domain.config;
 
+import java.time.Duration;
+import java.util.List;
+
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -13,16 +19,32 @@ import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import com.zaxxer.hikari.HikariDataSource;
 
-import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
-import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
-import net.ttddyy.dsproxy.listener.logging.SLF4JQueryLoggingListener;
 import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
 
+import io.cockroachdb.training.common.jdbc.SampledQueryLoggingListener;
+import io.cockroachdb.training.common.jdbc.SessionStateDataSource;
+import io.cockroachdb.training.common.jdbc.StatementStatsListener;
+import io.cockroachdb.training.common.jdbc.ToggleableDataSource;
+
 @Configuration
 @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
 public class DataSourceConfig {
     public static final String SQL_TRACE_LOGGER = "io.cockroachdb.SQL_TRACE";
 
+    public static final String SQL_STATS_LOGGER = "io.cockroachdb.SQL_STATS";
+
+    @Value("${training.statement-stats.enabled:false}")
+    private boolean statementStatsEnabled;
+
+    @Value("${training.statement-stats.slow-threshold:500ms}")
+    private Duration slowThreshold;
+
+    @Value("${training.statement-stats.max-fingerprints:500}")
+    private int maxFingerprints;
+
+    @Value("${training.statement-stats.report-size:10}")
+    private int reportSize;
+
     @Bean
     @Primary
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
@@ -33,30 +55,48 @@ public class DataSourceConfig {
     @Bean
     @Primary
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
-    public DataSource primaryDataSource() {
+    public DataSource primaryDataSource(
+            @Value("${training.session-state.enabled:false}") boolean sessionStateEnabled,
+            @Value("${training.session-state.reset-on-return:}") List<String> resetOnReturn,
+            @Value("${training.sql-trace.enabled:true}") boolean sqlTraceEnabled,
+            @Value("${training.sql-trace.sample-rate:1}") int sqlTraceSampleRate,
+            @Value("${training.sql-trace.slow-threshold:0ms}") Duration sqlTraceSlowThreshold) {
+        DataSource dataSource = targetDataSource();
+        if (sessionStateEnabled) {
+            dataSource = new SessionStateDataSource(dataSource, resetOnReturn);
+        }
+
+        if (sqlTraceEnabled || statementStatsEnabled) {
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder
+                    .create(dataSource)
+                    .name("SQL-Trace");
+            if (sqlTraceEnabled) {
+                builder.listener(new SampledQueryLoggingListener(
+                        SQL_TRACE_LOGGER, sqlTraceSampleRate, sqlTraceSlowThreshold));
+            }
+            if (statementStatsEnabled) {
+                builder.listener(statementStatsListener());
+            }
+
+            // Bypass the proxy unless the trace logger is at TRACE level, which can be changed at runtime
+            Logger traceLogger = LoggerFactory.getLogger(SQL_TRACE_LOGGER);
+            dataSource = new ToggleableDataSource(dataSource, builder.build(),
+                    () -> statementStatsEnabled || traceLogger.isTraceEnabled());
+        }
+
         LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
-        proxy.setTargetDataSource(loggingProxy(targetDataSource()));
+        proxy.setTargetDataSource(dataSource);
         proxy.setDefaultAutoCommit(true);
         return proxy;
     }
 
-    private DataSource loggingProxy(DataSource dataSource) {
-        DefaultQueryLogEntryCreator creator = new DefaultQueryLogEntryCreator();
-        creator.setMultiline(true);
-
-        SLF4JQueryLoggingListener listener = new SLF4JQueryLoggingListener();
-        listener.setLogger(SQL_TRACE_LOGGER);
-        listener.setLogLevel(SLF4JLogLevel.TRACE);
-        listener.setQueryLogEntryCreator(creator);
-        listener.setWriteConnectionId(true);
-        listener.setWriteIsolation(true);
-
-        return ProxyDataSourceBuilder
-                .create(dataSource)
-                .name("SQL-Trace")
-                .asJson()
-                .listener(listener)
-                .build();
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public StatementStatsListener statementStatsListener() {
+        StatementStatsListener listener = new StatementStatsListener(SQL_STATS_LOGGER,
+                slowThreshold, maxFingerprints);
+        listener.setReportSize(reportSize);
+        return listener;
     }
 
     @Bean
@@ -6,8 +6,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Role;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.backoff.Sleeper;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import io.cockroachdb.training.common.aspect.AdvisorOrder;
+import io.cockroachdb.training.common.retry.MeteredSleeper;
+import io.cockroachdb.training.common.retry.RetryMetrics;
+import io.cockroachdb.training.common.retry.RetryMetricsListener;
 import io.cockroachdb.training.common.retry.TransientExceptionClassifier;
 import io.cockroachdb.training.common.retry.TransientExceptionRetryListener;
 
@@ -25,4 +31,19 @@ public class SpringRetryConfig {
     public TransientExceptionRetryListener transientExceptionRetryListener() {
         return new TransientExceptionRetryListener();
     }
+
+    @Bean
+    public RetryMetrics retryMetrics(MeterRegistry meterRegistry) {
+        return new RetryMetrics(meterRegistry);
+    }
+
+    @Bean
+    public RetryMetricsListener retryMetricsListener(RetryMetrics retryMetrics) {
+        return new RetryMetricsListener(retryMetrics);
+    }
+
+    @Bean
+    public Sleeper meteredSleeper(RetryMetrics retryMetrics) {
+        return new MeteredSleeper(retryMetrics);
+    }
 }
@@ -28,6 +28,11 @@ public class Customer extends AbstractEntity<UUID> {
             return this;
         }
 
+        public Builder withId(UUID id) {
+            instance.id = id;
+            return this;
+        }
+
         public Builder withFirstName(String firstName) {
             instance.firstName = firstName;
             return this;
@@ -28,6 +28,8 @@ public class PurchaseOrder extends AbstractEntity<UUID> {
 
         private Customer customer;
 
+        private LocalDateTime datePlaced;
+
         private final List<PurchaseOrderItem> orderItems = new ArrayList<>();
 
         private Builder() {
@@ -38,6 +40,16 @@ public class PurchaseOrder extends AbstractEntity<UUID> {
             return this;
         }
 
+        public Builder withId(UUID id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder withDatePlaced(LocalDateTime datePlaced) {
+            this.datePlaced = datePlaced;
+            return this;
+        }
+
         public Builder withCustomer(Customer customer) {
             this.customer = customer;
             return this;
@@ -58,6 +70,7 @@ public class PurchaseOrder extends AbstractEntity<UUID> {
             PurchaseOrder order = new PurchaseOrder();
             order.id = id;
             order.customer = this.customer;
+            order.datePlaced = this.datePlaced;
             order.deliveryAddress = customer.getAddress();
             order.orderItems.addAll(this.orderItems);
 
@@ -113,6 +126,27 @@ public class PurchaseOrder extends AbstractEntity<UUID> {
         return id;
     }
 
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * @return a new transient order with the same state and copies of the line items,
+     * for placing an order again after a rolled back attempt left state on this instance
+     */
+    public PurchaseOrder copy() {
+        PurchaseOrder order = new PurchaseOrder();
+        order.id = this.id;
+        order.totalPrice = this.totalPrice;
+        order.customer = this.customer;
+        order.status = this.status;
+        order.datePlaced = this.datePlaced;
+        order.dateUpdated = this.dateUpdated;
+        order.deliveryAddress = this.deliveryAddress;
+        this.orderItems.forEach(orderItem -> order.orderItems.add(orderItem.copy()));
+        return order;
+    }
+
     @PrePersist
     public void preCreate() {
         if (datePlaced == null) {
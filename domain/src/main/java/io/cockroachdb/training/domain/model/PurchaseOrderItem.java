@@ -92,6 +92,14 @@ public class PurchaseOrderItem {
     @Fetch(FetchMode.JOIN)
     private Product product;
 
+    PurchaseOrderItem copy() {
+        PurchaseOrderItem orderItem = new PurchaseOrderItem();
+        orderItem.quantity = this.quantity;
+        orderItem.unitPrice = this.unitPrice;
+        orderItem.product = this.product;
+        return orderItem;
+    }
+
     public int getQuantity() {
         return quantity;
     }
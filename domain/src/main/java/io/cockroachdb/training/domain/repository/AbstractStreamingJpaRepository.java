@@ -0,0 +1,47 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import io.cockroachdb.training.domain.util.StreamUtils;
+
+/**
+ * Base class for streaming repository fragments reading read-only entities using
+ * server-side cursors, with the fetch size from {@code training.streaming.fetch-size}.
+ * The persistence context is cleared every {@code training.streaming.clear-interval}
+ * entities (unless zero) to keep its size bounded, which detaches entities read before.
+ * All streams require an existing transaction and must be closed.
+ */
+abstract class AbstractStreamingJpaRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${training.streaming.fetch-size:256}")
+    private int fetchSize;
+
+    @Value("${training.streaming.clear-interval:256}")
+    private int clearInterval;
+
+    protected EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    protected <T> Stream<T> stream(TypedQuery<T> query) {
+        Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Expected existing transaction");
+        Stream<T> stream = query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+        return clearInterval > 0 ? StreamUtils.clearing(stream, entityManager, clearInterval) : stream;
+    }
+}
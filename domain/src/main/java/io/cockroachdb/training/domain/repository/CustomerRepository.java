@@ -3,6 +3,9 @@ package io.cockroachdb.training.domain.repository;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -13,8 +16,13 @@ import io.cockroachdb.training.domain.model.Customer;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, UUID>,
-        PagingAndSortingRepository<Customer, UUID> {
-    // Note: Full scan
+        PagingAndSortingRepository<Customer, UUID>, CustomerStreamingRepository {
+    // Note: Full scan (see IdSamplingRepository for O(k) sampling)
     @Query(value = "select id from customer order by random() limit :limit", nativeQuery = true)
     List<UUID> findRandomUniqueIds(@Param("limit") int limit);
+
+    /**
+     * Keyset pagination in primary key order, without a count query.
+     */
+    Window<Customer> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
 }
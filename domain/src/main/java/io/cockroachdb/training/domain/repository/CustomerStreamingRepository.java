@@ -0,0 +1,15 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.Customer;
+
+/**
+ * Repository fragment for streaming customers, see {@link AbstractStreamingJpaRepository}.
+ */
+public interface CustomerStreamingRepository {
+    /**
+     * @return all customers in primary key order
+     */
+    Stream<Customer> streamCustomers();
+}
@@ -0,0 +1,14 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.Customer;
+
+public class CustomerStreamingRepositoryImpl extends AbstractStreamingJpaRepository
+        implements CustomerStreamingRepository {
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return stream(getEntityManager().createQuery(
+                "select c from Customer c order by c.id", Customer.class));
+    }
+}
@@ -0,0 +1,136 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+
+@Repository
+public class IdSamplingJdbcRepository implements IdSamplingRepository {
+    // Seeks from a random start point to the next key, wrapping around past the last key
+    private static final String SEEK_SQL =
+            "select coalesce(n.id, (select min(id) from %1$s)) "
+            + "from unnest(?::UUID[]) as s(start) "
+            + "left join lateral (select id from %1$s where id >= s.start order by id limit 1) as n on true";
+
+    private static final String SCAN_SQL = "select id from %s limit ?";
+
+    // Tables up to this multiple of the limit are scanned, since seeks would mostly collide
+    private static final int SCAN_FACTOR = 4;
+
+    // Extra seeks per round to make up for collisions
+    private static final double OVERSAMPLING = 1.25;
+
+    private static final int MAX_ROUNDS = 8;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<UUID> sampleProductIds(int limit) {
+        return sampleIds("product", limit);
+    }
+
+    @Override
+    public List<UUID> sampleCustomerIds(int limit) {
+        return sampleIds("customer", limit);
+    }
+
+    private List<UUID> sampleIds(String table, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Bounded scan to sample tables where the limit is a large fraction of all rows
+        final long scanLimit = (long) limit * SCAN_FACTOR;
+        ReservoirSample reservoir = new ReservoirSample(limit);
+        jdbcTemplate.query(SCAN_SQL.formatted(table), reservoir, scanLimit + 1);
+        if (reservoir.seen <= scanLimit) {
+            Collections.shuffle(reservoir.sample);
+            return reservoir.sample;
+        }
+
+        Set<UUID> sample = new LinkedHashSet<>();
+        String sql = SEEK_SQL.formatted(table);
+
+        for (int round = 0; round < MAX_ROUNDS && sample.size() < limit; round++) {
+            int remaining = limit - sample.size();
+            UUID[] starts = new UUID[(int) Math.ceil(remaining * OVERSAMPLING)];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = UUID.randomUUID();
+            }
+
+            List<UUID> ids = jdbcTemplate.query(sql,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("UUID", starts)),
+                    (rs, rowNum) -> rs.getObject(1, UUID.class));
+
+            for (UUID id : ids) {
+                if (sample.size() == limit) {
+                    break;
+                }
+                if (id != null) {
+                    sample.add(id);
+                }
+            }
+        }
+
+        if (sample.size() < limit) {
+            throw new IllegalStateException("Sampled only " + sample.size() + " of " + limit
+                                            + " ids from " + table + " after " + MAX_ROUNDS
+                                            + " rounds, are the keys randomly distributed?");
+        }
+
+        return new ArrayList<>(sample);
+    }
+
+    /**
+     * Uniform random sample of a fixed size over rows of unknown count (algorithm R).
+     */
+    private static class ReservoirSample implements RowCallbackHandler {
+        private final List<UUID> sample;
+
+        private final int size;
+
+        private long seen;
+
+        ReservoirSample(int size) {
+            this.sample = new ArrayList<>(size);
+            this.size = size;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject(1, UUID.class);
+            seen++;
+            if (sample.size() < size) {
+                sample.add(id);
+            } else {
+                long i = ThreadLocalRandom.current().nextLong(seen);
+                if (i < size) {
+                    sample.set((int) i, id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Random sampling of primary keys in O(k) rather than a full scan, by seeking to random
+ * points in the UUID keyspace. Assumes randomly generated (v4) UUID keys, which are
+ * evenly spread over the keyspace. Tables only a few times larger than the sample are
+ * scanned and sampled instead.
+ */
+public interface IdSamplingRepository {
+    /**
+     * @param limit max number of ids
+     * @return unique random product ids, fewer than the limit only if the table is smaller
+     */
+    List<UUID> sampleProductIds(int limit);
+
+    /**
+     * @param limit max number of ids
+     * @return unique random customer ids, fewer than the limit only if the table is smaller
+     */
+    List<UUID> sampleCustomerIds(int limit);
+}
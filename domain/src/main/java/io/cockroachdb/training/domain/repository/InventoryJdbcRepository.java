@@ -0,0 +1,56 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import jakarta.annotation.PostConstruct;
+
+@Repository
+public class InventoryJdbcRepository implements InventoryRepository {
+    private static final String UPDATE_INVENTORY_SQL =
+            "UPDATE product SET inventory=product.inventory+data_table.delta, version=product.version+1 "
+            + "FROM (select unnest(?) as id, unnest(?) as delta) as data_table "
+            + "WHERE product.id=data_table.id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int updateInventory(Map<UUID, Integer> deltas) {
+        Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Expected existing transaction");
+
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        int rows = jdbcTemplate.update(UPDATE_INVENTORY_SQL, ps -> {
+            ps.setArray(1, ps.getConnection()
+                    .createArrayOf("UUID", deltas.keySet().toArray()));
+            ps.setArray(2, ps.getConnection()
+                    .createArrayOf("INT", deltas.values().toArray()));
+        });
+
+        if (rows != deltas.size()) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(UPDATE_INVENTORY_SQL, deltas.size(), rows);
+        }
+
+        return rows;
+    }
+}
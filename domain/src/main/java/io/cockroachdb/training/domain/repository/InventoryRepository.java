@@ -0,0 +1,41 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+
+/**
+ * Repository for set-based product inventory adjustments, bypassing the
+ * persistence context.
+ */
+public interface InventoryRepository {
+    /**
+     * Add inventory deltas to products in a single statement. Also increments the
+     * product version to stay consistent with optimistic locking of managed entities.
+     *
+     * @param deltas net quantity to add (negative for decrements) keyed by product ID
+     * @return number of rows updated
+     * @throws org.springframework.dao.DataIntegrityViolationException if any inventory
+     *                                                                 becomes negative
+     * @throws org.springframework.dao.IncorrectUpdateSemanticsDataAccessException if any
+     *                                                                             product is not found
+     */
+    int updateInventory(Map<UUID, Integer> deltas);
+
+    /**
+     * Decrement product inventories by the net line item quantities of the given orders.
+     *
+     * @param orders the orders
+     * @return number of rows updated
+     */
+    default int decrementInventory(Collection<PurchaseOrder> orders) {
+        // Sorted to update rows in a consistent order
+        Map<UUID, Integer> deltas = new TreeMap<>();
+        orders.forEach(order -> order.getOrderItems().forEach(orderItem ->
+                deltas.merge(orderItem.getProduct().getId(), -orderItem.getQuantity(), Integer::sum)));
+        return updateInventory(deltas);
+    }
+}
@@ -0,0 +1,17 @@
+package io.cockroachdb.training.domain.repository;
+
+/**
+ * Strategy for updating product inventory when placing orders.
+ */
+public enum InventoryUpdateStrategy {
+    /**
+     * Load each product as a managed entity and let the persistence provider
+     * flush one versioned UPDATE per product.
+     */
+    ENTITY,
+    /**
+     * Apply all net inventory deltas in a single UPDATE statement
+     * using {@link InventoryRepository}.
+     */
+    SET_BASED
+}
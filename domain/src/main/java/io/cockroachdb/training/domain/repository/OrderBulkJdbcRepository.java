@@ -0,0 +1,149 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import jakarta.annotation.PostConstruct;
+
+import io.cockroachdb.training.domain.model.Address;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.PurchaseOrderItem;
+
+@Repository
+public class OrderBulkJdbcRepository implements OrderBulkRepository {
+    // Both tables in one statement, all data-modifying CTEs run to completion
+    // and FK checks are performed after all writes in the statement. Returns the
+    // number of orders inserted, since the update count would be of the items.
+    private static final String INSERT_ORDERS_SQL =
+            "WITH po AS ("
+            + "INSERT INTO purchase_order (id,customer_id,total_price,status,date_placed,date_updated,"
+            + "deliv_address1,deliv_address2,deliv_postcode,deliv_city,deliv_country) "
+            + "select unnest(?) as id, "
+            + "       unnest(?) as customer_id, "
+            + "       unnest(?) as total_price, "
+            + "       unnest(?)::shipment_status as status, "
+            + "       unnest(?) as date_placed, "
+            + "       unnest(?) as date_updated, "
+            + "       unnest(?) as deliv_address1, "
+            + "       unnest(?) as deliv_address2, "
+            + "       unnest(?) as deliv_postcode, "
+            + "       unnest(?) as deliv_city, "
+            + "       unnest(?) as deliv_country "
+            + "RETURNING id), "
+            + "poi AS ("
+            + "INSERT INTO purchase_order_item (order_id,product_id,quantity,unit_price,item_pos) "
+            + "select unnest(?) as order_id, "
+            + "       unnest(?) as product_id, "
+            + "       unnest(?) as quantity, "
+            + "       unnest(?) as unit_price, "
+            + "       unnest(?) as item_pos "
+            + "RETURNING order_id) "
+            + "select count(*) from po";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int insertOrders(Collection<PurchaseOrder> orders) {
+        Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Expected existing transaction");
+
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        final int numOrders = orders.size();
+
+        List<UUID> ids = new ArrayList<>(numOrders);
+        List<UUID> customerIds = new ArrayList<>(numOrders);
+        List<BigDecimal> totalPrices = new ArrayList<>(numOrders);
+        List<String> statuses = new ArrayList<>(numOrders);
+        List<Timestamp> datesPlaced = new ArrayList<>(numOrders);
+        List<Timestamp> datesUpdated = new ArrayList<>(numOrders);
+        List<String> address1 = new ArrayList<>(numOrders);
+        List<String> address2 = new ArrayList<>(numOrders);
+        List<String> postcodes = new ArrayList<>(numOrders);
+        List<String> cities = new ArrayList<>(numOrders);
+        List<String> countries = new ArrayList<>(numOrders);
+
+        List<UUID> itemOrderIds = new ArrayList<>();
+        List<UUID> itemProductIds = new ArrayList<>();
+        List<Integer> itemQuantities = new ArrayList<>();
+        List<BigDecimal> itemUnitPrices = new ArrayList<>();
+        List<Integer> itemPositions = new ArrayList<>();
+
+        orders.forEach(order -> {
+            if (order.getId() == null) {
+                order.setId(UUID.randomUUID());
+            }
+            order.preCreate();
+            if (order.getTotalPrice() == null) {
+                order.setTotalPrice(order.subTotal());
+            }
+
+            ids.add(order.getId());
+            customerIds.add(order.getCustomer().getId());
+            totalPrices.add(order.getTotalPrice());
+            statuses.add(order.getStatus().name());
+            datesPlaced.add(Timestamp.valueOf(order.getDatePlaced()));
+            datesUpdated.add(Timestamp.valueOf(order.getDateUpdated()));
+
+            Address address = order.getDeliveryAddress();
+            address1.add(address != null ? address.getAddress1() : null);
+            address2.add(address != null ? address.getAddress2() : null);
+            postcodes.add(address != null ? address.getPostcode() : null);
+            cities.add(address != null ? address.getCity() : null);
+            countries.add(address != null ? address.getCountry() : null);
+
+            List<PurchaseOrderItem> orderItems = order.getOrderItems();
+            for (int pos = 0; pos < orderItems.size(); pos++) {
+                PurchaseOrderItem orderItem = orderItems.get(pos);
+                itemOrderIds.add(order.getId());
+                itemProductIds.add(orderItem.getProduct().getId());
+                itemQuantities.add(orderItem.getQuantity());
+                itemUnitPrices.add(orderItem.getUnitPrice());
+                itemPositions.add(pos);
+            }
+        });
+
+        Integer rows = jdbcTemplate.query(INSERT_ORDERS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("UUID", ids.toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("UUID", customerIds.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("DECIMAL", totalPrices.toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("VARCHAR", statuses.toArray()));
+            ps.setArray(5, ps.getConnection().createArrayOf("TIMESTAMP", datesPlaced.toArray()));
+            ps.setArray(6, ps.getConnection().createArrayOf("TIMESTAMP", datesUpdated.toArray()));
+            ps.setArray(7, ps.getConnection().createArrayOf("VARCHAR", address1.toArray()));
+            ps.setArray(8, ps.getConnection().createArrayOf("VARCHAR", address2.toArray()));
+            ps.setArray(9, ps.getConnection().createArrayOf("VARCHAR", postcodes.toArray()));
+            ps.setArray(10, ps.getConnection().createArrayOf("VARCHAR", cities.toArray()));
+            ps.setArray(11, ps.getConnection().createArrayOf("VARCHAR", countries.toArray()));
+            ps.setArray(12, ps.getConnection().createArrayOf("UUID", itemOrderIds.toArray()));
+            ps.setArray(13, ps.getConnection().createArrayOf("UUID", itemProductIds.toArray()));
+            ps.setArray(14, ps.getConnection().createArrayOf("INT", itemQuantities.toArray()));
+            ps.setArray(15, ps.getConnection().createArrayOf("DECIMAL", itemUnitPrices.toArray()));
+            ps.setArray(16, ps.getConnection().createArrayOf("INT", itemPositions.toArray()));
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+
+        return rows != null ? rows : 0;
+    }
+}
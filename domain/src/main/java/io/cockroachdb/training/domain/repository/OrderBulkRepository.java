@@ -0,0 +1,21 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.Collection;
+
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+
+/**
+ * Repository for bulk inserts of purchase orders and their line items,
+ * bypassing the persistence context.
+ */
+public interface OrderBulkRepository {
+    /**
+     * Insert orders including line items in a single statement. Orders without an ID
+     * are assigned a random UUID and the placement dates are set client side.
+     * The orders remain detached.
+     *
+     * @param orders the orders to insert
+     * @return number of orders inserted
+     */
+    int insertOrders(Collection<PurchaseOrder> orders);
+}
@@ -0,0 +1,17 @@
+package io.cockroachdb.training.domain.repository;
+
+/**
+ * Strategy for inserting orders in batch order placement.
+ */
+public enum OrderInsertStrategy {
+    /**
+     * Persist orders as managed entities and let the persistence provider
+     * flush batched INSERTs for orders and line items.
+     */
+    ENTITY,
+    /**
+     * Insert orders and line items in a single statement per chunk
+     * using {@link OrderBulkRepository}.
+     */
+    BULK
+}
@@ -1,10 +1,15 @@
 package io.cockroachdb.training.domain.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -18,7 +23,7 @@ import io.cockroachdb.training.domain.model.PurchaseOrder;
 import io.cockroachdb.training.domain.model.ShipmentStatus;
 
 @Repository
-public interface OrderRepository extends JpaRepository<PurchaseOrder, UUID> {
+public interface OrderRepository extends JpaRepository<PurchaseOrder, UUID>, OrderStreamingRepository {
     @Query(value = "select sum(po.totalPrice) from PurchaseOrder po where po.status=:status")
     BigDecimal sumOrderTotal(@Param("status") ShipmentStatus status);
 
@@ -27,12 +32,30 @@ public interface OrderRepository extends JpaRepository<PurchaseOrder, UUID> {
                    "where po.status=?1", nativeQuery = true)
     BigDecimal sumOrderTotalNativeQuery(String status);
 
+    /**
+     * Find which of the given order IDs already exist, used for idempotent bulk inserts.
+     */
+    @Query(value = "select po.id from PurchaseOrder po where po.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
     // Embeddable type and not an entity
     @Modifying
     @Query(value = "delete from purchase_order_item where 1=1", nativeQuery = true)
     void deleteAllOrderItems();
 
-    // Not used, just for reference
+    /**
+     * Keyset pagination in primary key order, without a count query.
+     */
+    Window<PurchaseOrder> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset pagination of orders with a given status in (status, id) order, served
+     * by the status index without a count query.
+     */
+    Window<PurchaseOrder> findByStatusOrderByStatusAscIdAsc(ShipmentStatus status,
+                                                            ScrollPosition position, Limit limit);
+
+    // Not used, just for reference (see findByStatusOrderByStatusAscIdAsc)
     @Query(value = "select o from PurchaseOrder o "
                    + "where o.status=:status ",
             countQuery = "select count(o.id) from PurchaseOrder o "
@@ -0,0 +1,22 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+
+/**
+ * Repository fragment for streaming orders, see {@link AbstractStreamingJpaRepository}.
+ */
+public interface OrderStreamingRepository {
+    /**
+     * @return all orders with their line items in primary key order
+     */
+    Stream<PurchaseOrder> streamOrders();
+
+    /**
+     * @param status the shipment status
+     * @return orders with the given status and their line items in primary key order
+     */
+    Stream<PurchaseOrder> streamOrders(ShipmentStatus status);
+}
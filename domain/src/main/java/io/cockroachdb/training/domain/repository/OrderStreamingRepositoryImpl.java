@@ -0,0 +1,29 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+
+/**
+ * Order items are join fetched in the same cursor, since the eager element collection
+ * would otherwise be loaded with one query per order. Rows of the same order are
+ * adjacent in primary key order and grouped into a single entity.
+ */
+public class OrderStreamingRepositoryImpl extends AbstractStreamingJpaRepository
+        implements OrderStreamingRepository {
+    @Override
+    public Stream<PurchaseOrder> streamOrders() {
+        return stream(getEntityManager().createQuery(
+                "select o from PurchaseOrder o left join fetch o.orderItems order by o.id",
+                PurchaseOrder.class));
+    }
+
+    @Override
+    public Stream<PurchaseOrder> streamOrders(ShipmentStatus status) {
+        return stream(getEntityManager().createQuery(
+                "select o from PurchaseOrder o left join fetch o.orderItems "
+                + "where o.status=:status order by o.id", PurchaseOrder.class)
+                .setParameter("status", status));
+    }
+}
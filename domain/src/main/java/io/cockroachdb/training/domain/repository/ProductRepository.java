@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -15,14 +18,19 @@ import jakarta.persistence.LockModeType;
 import io.cockroachdb.training.domain.model.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductStreamingRepository {
     @Query(value = "select exists(select 1 from product limit 1)", nativeQuery = true)
     Boolean hasProducts();
 
-    // Full scan
+    // Full scan (see IdSamplingRepository for O(k) sampling)
     @Query(value = "select id from product order by random() limit :limit", nativeQuery = true)
     List<UUID> findRandomUniqueIds(@Param("limit") int limit);
 
+    /**
+     * Keyset pagination in primary key order, without a count query.
+     */
+    Window<Product> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
     // Not used, for reference
     @Lock(LockModeType.PESSIMISTIC_WRITE) // for update
     @Query("select p from Product p where p.id=:id")
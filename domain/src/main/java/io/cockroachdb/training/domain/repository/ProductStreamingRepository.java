@@ -0,0 +1,15 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.Product;
+
+/**
+ * Repository fragment for streaming products, see {@link AbstractStreamingJpaRepository}.
+ */
+public interface ProductStreamingRepository {
+    /**
+     * @return all products in primary key order
+     */
+    Stream<Product> streamProducts();
+}
@@ -0,0 +1,14 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import io.cockroachdb.training.domain.model.Product;
+
+public class ProductStreamingRepositoryImpl extends AbstractStreamingJpaRepository
+        implements ProductStreamingRepository {
+    @Override
+    public Stream<Product> streamProducts() {
+        return stream(getEntityManager().createQuery(
+                "select p from Product p order by p.id", Product.class));
+    }
+}
@@ -0,0 +1,204 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import jakarta.annotation.PostConstruct;
+
+import io.cockroachdb.training.domain.model.Address;
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.Product;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+
+@Repository
+public class StreamingJdbcRepository implements StreamingRepository {
+    private static final RowMapper<Product> PRODUCT_MAPPER = (rs, rowNum) -> Product.builder()
+            .withId(rs.getObject("id", UUID.class))
+            .withName(rs.getString("name"))
+            .withSku(rs.getString("sku"))
+            .withPrice(rs.getBigDecimal("price"))
+            .withInventory(rs.getInt("inventory"))
+            .build();
+
+    private static final RowMapper<Customer> CUSTOMER_MAPPER = (rs, rowNum) -> Customer.builder()
+            .withId(rs.getObject("id", UUID.class))
+            .withFirstName(rs.getString("first_name"))
+            .withLastName(rs.getString("last_name"))
+            .withEmail(rs.getString("email"))
+            .withAddress(Address.builder()
+                    .withAddress1(rs.getString("address1"))
+                    .withAddress2(rs.getString("address2"))
+                    .withCity(rs.getString("city"))
+                    .withPostcode(rs.getString("postcode"))
+                    .withCountry(rs.getString("country"))
+                    .build())
+            .build();
+
+    private static final RowMapper<OrderItemRow> ORDER_ITEM_MAPPER = (rs, rowNum) -> {
+        OrderItemRow row = new OrderItemRow();
+        row.orderId = rs.getObject("id", UUID.class);
+        row.customerId = rs.getObject("customer_id", UUID.class);
+        row.totalPrice = rs.getBigDecimal("total_price");
+        row.status = ShipmentStatus.valueOf(rs.getString("status"));
+        row.datePlaced = rs.getTimestamp("date_placed").toLocalDateTime();
+        row.dateUpdated = rs.getTimestamp("date_updated").toLocalDateTime();
+        row.deliveryAddress = Address.builder()
+                .withAddress1(rs.getString("deliv_address1"))
+                .withAddress2(rs.getString("deliv_address2"))
+                .withCity(rs.getString("deliv_city"))
+                .withPostcode(rs.getString("deliv_postcode"))
+                .withCountry(rs.getString("deliv_country"))
+                .build();
+        row.productId = rs.getObject("product_id", UUID.class);
+        row.quantity = rs.getInt("quantity");
+        row.unitPrice = rs.getBigDecimal("unit_price");
+        return row;
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${training.streaming.fetch-size:256}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // The driver only uses a cursor with a fetch size in non auto-commit mode
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        return stream("select id,name,sku,price,inventory from product order by id", PRODUCT_MAPPER);
+    }
+
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return stream("select id,first_name,last_name,email,address1,address2,city,postcode,country "
+                      + "from customer order by id", CUSTOMER_MAPPER);
+    }
+
+    /**
+     * Order items are joined in the same cursor and rows of the same order, adjacent
+     * in primary key order, are grouped into a single order. Orders always have
+     * line items, so an inner join is used.
+     */
+    @Override
+    public Stream<PurchaseOrder> streamOrders() {
+        Stream<OrderItemRow> rows = stream(
+                "select po.id,po.customer_id,po.total_price,po.status,po.date_placed,po.date_updated,"
+                + "po.deliv_address1,po.deliv_address2,po.deliv_city,po.deliv_postcode,po.deliv_country,"
+                + "poi.product_id,poi.quantity,poi.unit_price "
+                + "from purchase_order po join purchase_order_item poi on poi.order_id = po.id "
+                + "order by po.id, poi.item_pos", ORDER_ITEM_MAPPER);
+        return StreamSupport.stream(new OrderSpliterator(rows.iterator()), false)
+                .onClose(rows::close);
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, RowMapper<T> rowMapper, Object... args) {
+        Assert.isTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Expected existing transaction");
+        return jdbcTemplate.queryForStream(sql, rowMapper, args);
+    }
+
+    private static class OrderItemRow {
+        UUID orderId;
+
+        UUID customerId;
+
+        BigDecimal totalPrice;
+
+        ShipmentStatus status;
+
+        LocalDateTime datePlaced;
+
+        LocalDateTime dateUpdated;
+
+        Address deliveryAddress;
+
+        UUID productId;
+
+        int quantity;
+
+        BigDecimal unitPrice;
+    }
+
+    private static class OrderSpliterator extends Spliterators.AbstractSpliterator<PurchaseOrder> {
+        private final Iterator<OrderItemRow> rows;
+
+        // First row of the next order, read ahead when grouping the current one
+        private OrderItemRow next;
+
+        OrderSpliterator(Iterator<OrderItemRow> rows) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PurchaseOrder> action) {
+            if (next == null && !rows.hasNext()) {
+                return false;
+            }
+
+            OrderItemRow first = next != null ? next : rows.next();
+            next = null;
+
+            PurchaseOrder.Builder builder = PurchaseOrder.builder()
+                    .withId(first.orderId)
+                    .withDatePlaced(first.datePlaced)
+                    .withCustomer(Customer.builder()
+                            .withId(first.customerId)
+                            .withAddress(first.deliveryAddress)
+                            .build());
+            addOrderItem(builder, first);
+
+            while (rows.hasNext()) {
+                OrderItemRow row = rows.next();
+                if (!Objects.equals(first.orderId, row.orderId)) {
+                    next = row;
+                    break;
+                }
+                addOrderItem(builder, row);
+            }
+
+            PurchaseOrder order = builder.build();
+            order.setStatus(first.status);
+            order.setTotalPrice(first.totalPrice);
+            order.setDateUpdated(first.dateUpdated);
+
+            action.accept(order);
+            return true;
+        }
+
+        private static void addOrderItem(PurchaseOrder.Builder builder, OrderItemRow row) {
+            builder.andOrderItem()
+                    .withProductId(row.productId)
+                    .withQuantity(row.quantity)
+                    .withUnitPrice(row.unitPrice)
+                    .then();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.cockroachdb.training.domain.repository;
+
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import io.cockroachdb.training.domain.model.Customer;
+import io.cockroachdb.training.domain.model.Product;
+import io.cockroachdb.training.domain.model.PurchaseOrder;
+
+/**
+ * Streaming reads using server-side cursors that map rows to detached objects
+ * without entity management, for jobs that read more rows than fit in heap.
+ * All methods require an existing transaction for the cursor to be used, and
+ * the returned streams must be closed.
+ */
+public interface StreamingRepository {
+    /**
+     * @return all products in primary key order
+     */
+    Stream<Product> streamProducts();
+
+    /**
+     * @return all customers in primary key order
+     */
+    Stream<Customer> streamCustomers();
+
+    /**
+     * @return all orders with their line items in primary key order, where the
+     * customers and products are references with only the ID set
+     */
+    Stream<PurchaseOrder> streamOrders();
+
+    /**
+     * @param sql       the query
+     * @param rowMapper the row mapper
+     * @param args      the bind parameters
+     * @param <T>       the row type
+     * @return the mapped rows
+     */
+    <T> Stream<T> stream(String sql, RowMapper<T> rowMapper, Object... args);
+}
@@ -0,0 +1,60 @@
+package io.cockroachdb.training.domain.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * An immutable, array-backed list of elements representing one chunk of a larger
+ * sequence, produced by {@link StreamUtils#chunkedStream}. Each chunk carries its
+ * zero-based ordinal in the encounter order of the source.
+ *
+ * @param <T> the element type
+ */
+public final class Chunk<T> extends AbstractList<T> implements RandomAccess {
+    private final long index;
+
+    private final Object[] elements;
+
+    private final int size;
+
+    Chunk(long index, Object[] elements, int size) {
+        this.index = index;
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * @return zero-based ordinal of this chunk in the source encounter order
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        Objects.checkIndex(i, size);
+        return (T) elements[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept((T) elements[i]);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
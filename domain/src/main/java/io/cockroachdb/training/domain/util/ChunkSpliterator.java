@@ -0,0 +1,164 @@
+package io.cockroachdb.training.domain.util;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A spliterator that lazily groups the elements of a source spliterator into
+ * fixed-size {@link Chunk}s in encounter order. Only one chunk is buffered at a time.
+ * <p>
+ * Not splittable, since a parallel stream would keep splitting a source of unknown
+ * size and read ahead far beyond what the workers consume. Use
+ * {@link StreamUtils#forEachChunk} for bounded parallel processing instead.
+ *
+ * @param <T> the element type
+ */
+class ChunkSpliterator<T> implements Spliterator<Chunk<T>>, Consumer<T> {
+    private final Spliterator<T> source;
+
+    private final int chunkSize;
+
+    private long nextIndex;
+
+    private Object[] buffer;
+
+    private int count;
+
+    ChunkSpliterator(Spliterator<T> source, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be > 0");
+        }
+        this.source = source;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void accept(T t) {
+        if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(chunkSize, buffer.length * 2L));
+        }
+        buffer[count++] = t;
+    }
+
+    private Chunk<T> nextChunk() {
+        // Avoid over-allocating for small sources or very large chunk sizes
+        buffer = new Object[(int) Math.max(1, Math.min(chunkSize, Math.min(source.estimateSize(), 8192)))];
+        count = 0;
+
+        while (count < chunkSize && source.tryAdvance(this)) {
+            // fill
+        }
+
+        if (count == 0) {
+            buffer = null;
+            return null;
+        }
+
+        Chunk<T> chunk = new Chunk<>(nextIndex++, buffer, count);
+        buffer = null;
+        return chunk;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Chunk<T>> action) {
+        Chunk<T> chunk = nextChunk();
+        if (chunk == null) {
+            return false;
+        }
+        action.accept(chunk);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Chunk<T>> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        if (size == Long.MAX_VALUE) {
+            return size;
+        }
+        return (size + chunkSize - 1) / chunkSize;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | NONNULL;
+        if (source.hasCharacteristics(SIZED)) {
+            characteristics |= SIZED | SUBSIZED;
+        }
+        return characteristics;
+    }
+
+    /**
+     * Primitive variant grouping an int source into arrays, avoiding boxing.
+     */
+    static class OfInt implements Spliterator<int[]>, IntConsumer {
+        private final Spliterator.OfInt source;
+
+        private final int chunkSize;
+
+        private int[] buffer;
+
+        private int count;
+
+        OfInt(Spliterator.OfInt source, int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be > 0");
+            }
+            this.source = source;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(int value) {
+            buffer[count++] = value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            buffer = new int[chunkSize];
+            count = 0;
+
+            while (count < chunkSize && source.tryAdvance((IntConsumer) this)) {
+                // fill
+            }
+
+            int[] chunk = count == chunkSize ? buffer : Arrays.copyOf(buffer, count);
+            buffer = null;
+
+            if (chunk.length == 0) {
+                return false;
+            }
+            action.accept(chunk);
+            return true;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = source.estimateSize();
+            if (size == Long.MAX_VALUE) {
+                return size;
+            }
+            return (size + chunkSize - 1) / chunkSize;
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | NONNULL;
+            if (source.hasCharacteristics(SIZED)) {
+                characteristics |= SIZED;
+            }
+            return characteristics;
+        }
+    }
+}
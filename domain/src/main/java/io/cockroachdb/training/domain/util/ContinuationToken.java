@@ -0,0 +1,79 @@
+package io.cockroachdb.training.domain.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+/**
+ * Encodes keyset scroll positions into opaque, URL-safe continuation tokens and back.
+ * A token carries the key values of the last element of a page, which are parsed back
+ * into their key types when decoded. A null or empty token denotes the first page.
+ */
+public abstract class ContinuationToken {
+    private ContinuationToken() {
+    }
+
+    /**
+     * @param position the keyset position after the last element of a page
+     * @return the opaque token
+     */
+    public static String encode(KeysetScrollPosition position) {
+        StringBuilder sb = new StringBuilder();
+        position.getKeys().forEach((key, value) -> {
+            if (!sb.isEmpty()) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(key, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+        });
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token   the opaque token or null for the first page
+     * @param parsers parsers for each key value, in sort order
+     * @return the keyset position to continue from
+     * @throws IllegalArgumentException if the token is malformed or has unexpected keys
+     */
+    public static KeysetScrollPosition decode(String token, Map<String, Function<String, ?>> parsers) {
+        if (token == null || token.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token", e);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (String pair : decoded.split("&")) {
+            int idx = pair.indexOf('=');
+            if (idx < 0) {
+                throw new IllegalArgumentException("Malformed continuation token");
+            }
+            String key = URLDecoder.decode(pair.substring(0, idx), StandardCharsets.UTF_8);
+            Function<String, ?> parser = parsers.get(key);
+            if (parser == null) {
+                throw new IllegalArgumentException("Unexpected key in continuation token: " + key);
+            }
+            keys.put(key, parser.apply(URLDecoder.decode(pair.substring(idx + 1), StandardCharsets.UTF_8)));
+        }
+
+        if (!keys.keySet().equals(parsers.keySet())) {
+            throw new IllegalArgumentException("Missing keys in continuation token");
+        }
+
+        return ScrollPosition.forward(keys);
+    }
+}
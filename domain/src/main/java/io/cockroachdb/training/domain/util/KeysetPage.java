@@ -0,0 +1,59 @@
+package io.cockroachdb.training.domain.util;
+
+import java.util.List;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+
+/**
+ * A page of results from keyset pagination with an opaque token to fetch the next
+ * page, if any. Unlike offset pagination there's no total count.
+ *
+ * @param <T> the element type
+ */
+public class KeysetPage<T> {
+    public static <T> KeysetPage<T> of(Window<T> window) {
+        String nextToken = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextToken = ContinuationToken.encode(
+                    (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new KeysetPage<>(window.getContent(), nextToken);
+    }
+
+    private final List<T> content;
+
+    private final String nextToken;
+
+    public KeysetPage(List<T> content, String nextToken) {
+        this.content = content;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public boolean hasContent() {
+        return !content.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /**
+     * @return the token for the next page or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+               "size=" + content.size() +
+               ", hasNext=" + hasNext() +
+               '}';
+    }
+}
@@ -0,0 +1,156 @@
+package io.cockroachdb.training.domain.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+
+import io.cockroachdb.training.domain.model.Product;
+
+/**
+ * A batch-scoped index of products keyed by ID, used to look up products and aggregate
+ * inventory changes for a chunk of orders. Backed by open addressing with linear probing
+ * over parallel arrays, so lookups are constant time and don't allocate.
+ * <p>
+ * Inventory deltas added for the same product are summed up and then applied to each
+ * product entity once. This saves repeated in-memory updates only, since Hibernate still
+ * flushes one UPDATE per dirty product. Not thread safe.
+ */
+public final class ProductIndex {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private UUID[] keys;
+
+    private Product[] products;
+
+    private int[] deltas;
+
+    private int mask;
+
+    private int size;
+
+    public static ProductIndex of(Collection<Product> products) {
+        ProductIndex index = new ProductIndex(products.size());
+        products.forEach(index::put);
+        return index;
+    }
+
+    public ProductIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = (int) Math.ceil(Math.max(1, expectedSize) / LOAD_FACTOR);
+        return Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    private static int hash(UUID id) {
+        // Murmur3 64-bit finalizer to spread bits for the power-of-two table
+        long h = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new UUID[capacity];
+        this.products = new Product[capacity];
+        this.deltas = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private int slotOf(UUID id) {
+        int slot = hash(id) & mask;
+        UUID key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(id)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    private int requiredSlotOf(UUID id) {
+        int slot = slotOf(Objects.requireNonNull(id, "id is null"));
+        if (slot < 0) {
+            throw new NoSuchElementException("No product with id: " + id);
+        }
+        return slot;
+    }
+
+    /**
+     * Add a product to the index, replacing any product with the same ID.
+     *
+     * @param product the product with a non-null ID
+     */
+    public void put(Product product) {
+        UUID id = Objects.requireNonNull(product.getId(), "product id is null");
+        int slot = slotOf(id);
+        if (slot >= 0) {
+            products[slot] = product;
+            return;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash();
+            slot = slotOf(id);
+        }
+        slot = -slot - 1;
+        keys[slot] = id;
+        products[slot] = product;
+        size++;
+    }
+
+    private void rehash() {
+        UUID[] oldKeys = keys;
+        Product[] oldProducts = products;
+        int[] oldDeltas = deltas;
+
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = -slotOf(oldKeys[i]) - 1;
+                keys[slot] = oldKeys[i];
+                products[slot] = oldProducts[i];
+                deltas[slot] = oldDeltas[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add an inventory delta for a product, aggregated with previous deltas for the same product.
+     *
+     * @param id    the product ID
+     * @param delta the quantity to add (negative for decrements)
+     * @throws NoSuchElementException if not found
+     */
+    public void addDelta(UUID id, int delta) {
+        deltas[requiredSlotOf(id)] += delta;
+    }
+
+    /**
+     * Apply each net delta to the product inventory and reset all deltas.
+     *
+     * @return number of products changed
+     */
+    public int applyDeltas() {
+        int changed = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && deltas[i] != 0) {
+                products[i].addInventoryQuantity(deltas[i]);
+                changed++;
+            }
+        }
+        Arrays.fill(deltas, 0);
+        return changed;
+    }
+}
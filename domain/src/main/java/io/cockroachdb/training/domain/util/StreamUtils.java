@@ -1,17 +1,178 @@
 package io.cockroachdb.training.domain.util;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.persistence.EntityManager;
 
 public abstract class StreamUtils {
     private StreamUtils() {
     }
 
+    /**
+     * Lazily groups the elements of a stream into chunks of a given size. Chunks are
+     * emitted in encounter order as the source is consumed, so at most one chunk is
+     * buffered at a time and the source is never fully materialized.
+     *
+     * @param stream    the source stream
+     * @param chunkSize the max number of elements per chunk (last chunk may be smaller)
+     * @param <T>       the element type
+     * @return a sequential stream of chunks
+     */
     public static <T> Stream<List<T>> chunkedStream(Stream<T> stream, int chunkSize) {
-        AtomicInteger idx = new AtomicInteger();
-        return stream.collect(Collectors.groupingBy(x -> idx.getAndIncrement() / chunkSize))
-                .values().stream();
+        return chunks(stream, chunkSize).map(chunk -> chunk);
+    }
+
+    /**
+     * Same as {@link #chunkedStream(Stream, int)} but exposing the chunk type,
+     * which carries the ordinal of each chunk.
+     */
+    public static <T> Stream<Chunk<T>> chunks(Stream<T> stream, int chunkSize) {
+        return StreamSupport.stream(new ChunkSpliterator<>(stream.spliterator(), chunkSize), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Lazily groups the elements of a stream into chunks of a given size and processes
+     * the chunks concurrently on virtual threads. The source is traversed sequentially
+     * by the caller thread, which blocks while all workers are busy, so at most one
+     * chunk per worker is read ahead and held in memory.
+     * <p>
+     * The first failing chunk stops reading of further chunks, and its exception is
+     * rethrown once all in-flight chunks have completed.
+     *
+     * @param stream      the source stream
+     * @param chunkSize   the max number of elements per chunk (last chunk may be smaller)
+     * @param parallelism the max number of chunks processed concurrently
+     * @param action      the action to apply to each chunk, in any order
+     * @param <T>         the element type
+     */
+    public static <T> void forEachChunk(Stream<T> stream, int chunkSize, int parallelism,
+                                        Consumer<? super Chunk<T>> action) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+
+        final Semaphore permits = new Semaphore(parallelism);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<Chunk<T>> chunkStream = chunks(stream, chunkSize)) {
+            Iterator<Chunk<T>> iterator = chunkStream.iterator();
+
+            while (failure.get() == null) {
+                // Acquire before reading the next chunk to bound the read-ahead
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                    break;
+                }
+
+                if (!iterator.hasNext()) {
+                    permits.release();
+                    break;
+                }
+
+                Chunk<T> chunk = iterator.next();
+
+                executor.submit(() -> {
+                    try {
+                        action.accept(chunk);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } // waits for all submitted chunks to complete
+
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException ex) {
+            throw ex;
+        }
+        if (e instanceof Error ex) {
+            throw ex;
+        }
+        if (e != null) {
+            throw new IllegalStateException("Chunk processing interrupted", e);
+        }
+    }
+
+    /**
+     * Lazily groups the elements of a primitive int stream into array chunks
+     * of a given size, without boxing.
+     */
+    public static Stream<int[]> chunkedStream(IntStream stream, int chunkSize) {
+        return StreamSupport.stream(new ChunkSpliterator.OfInt(stream.spliterator(), chunkSize), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Clear the persistence context every N elements of a stream of managed entities,
+     * to keep memory bounded when streaming large result sets. The context is cleared
+     * just before reading element N+1, so each element is still managed while it passes
+     * through the downstream stages. Elements retained beyond that (for example by
+     * {@code sorted} or a collector) are detached once the next clear happens.
+     *
+     * @param stream        the sequential source stream of entities
+     * @param entityManager the entity manager bound to the stream
+     * @param interval      number of elements between clears
+     * @param <T>           the element type
+     * @return a sequential stream clearing the persistence context as it's consumed
+     * @throws IllegalArgumentException if the stream is parallel
+     */
+    public static <T> Stream<T> clearing(Stream<T> stream, EntityManager entityManager, int interval) {
+        if (stream.isParallel()) {
+            throw new IllegalArgumentException("Parallel streams not supported");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be > 0");
+        }
+        return StreamSupport.stream(new ClearingSpliterator<>(stream.spliterator(), entityManager, interval), false)
+                .onClose(stream::close);
+    }
+
+    private static final class ClearingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Spliterator<T> source;
+
+        private final EntityManager entityManager;
+
+        private final int interval;
+
+        private int sinceClear;
+
+        private ClearingSpliterator(Spliterator<T> source, EntityManager entityManager, int interval) {
+            super(source.estimateSize(), source.characteristics() & Spliterator.ORDERED);
+            this.source = source;
+            this.entityManager = entityManager;
+            this.interval = interval;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            // Clear before the source reads (and attaches) the next element
+            if (sinceClear == interval) {
+                entityManager.clear();
+                sinceClear = 0;
+            }
+            if (source.tryAdvance(action)) {
+                sinceClear++;
+                return true;
+            }
+            return false;
+        }
     }
 }
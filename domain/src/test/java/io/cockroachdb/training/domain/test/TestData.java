@@ -14,6 +14,7 @@ import io.cockroachdb.training.common.annotation.TransactionImplicit;
 import io.cockroachdb.training.domain.model.Customer;
 import io.cockroachdb.training.domain.model.Product;
 import io.cockroachdb.training.domain.repository.CustomerRepository;
+import io.cockroachdb.training.domain.repository.IdSamplingRepository;
 import io.cockroachdb.training.domain.repository.OrderRepository;
 import io.cockroachdb.training.domain.repository.ProductRepository;
 import io.cockroachdb.training.domain.util.StreamUtils;
@@ -29,6 +30,9 @@ public class TestData {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private IdSamplingRepository idSamplingRepository;
+
     @TransactionImplicit
     public boolean hasProductData() {
         return this.productRepository.hasProducts();
@@ -65,9 +69,9 @@ public class TestData {
     public <T> T withRandomCustomersAndProducts(int customerCount, int productCount,
                                                 BiConsumerAction<List<Customer>, List<Product>, T> action) {
         List<Customer> customers = customerRepository.findAllById(
-                customerRepository.findRandomUniqueIds(customerCount));
+                idSamplingRepository.sampleCustomerIds(customerCount));
         List<Product> products = productRepository.findAllById(
-                productRepository.findRandomUniqueIds(productCount));
+                idSamplingRepository.sampleProductIds(productCount));
         return action.accept(customers, products);
     }
 }
@@ -0,0 +1,76 @@
+package io.cockroachdb.training.domain.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import io.cockroachdb.training.domain.model.ShipmentStatus;
+
+@Tag("unit-test")
+public class ContinuationTokenTest {
+    private static final Map<String, Function<String, ?>> STATUS_ID_KEYS = Map.of(
+            "status", ShipmentStatus::valueOf,
+            "id", UUID::fromString);
+
+    private static String tokenOf(String keys) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenRoundTrip_thenParseKeysBackToTheirTypes() {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("status", ShipmentStatus.placed);
+        keys.put("id", id);
+
+        String token = ContinuationToken.encode(ScrollPosition.forward(keys));
+        Assertions.assertTrue(token.matches("[A-Za-z0-9_-]+"), "Not URL-safe: " + token);
+
+        KeysetScrollPosition position = ContinuationToken.decode(token, STATUS_ID_KEYS);
+        Assertions.assertEquals(keys, position.getKeys());
+        Assertions.assertFalse(position.isInitial());
+    }
+
+    @Test
+    public void whenNullOrEmpty_thenFirstPage() {
+        Assertions.assertTrue(ContinuationToken.decode(null, STATUS_ID_KEYS).isInitial());
+        Assertions.assertTrue(ContinuationToken.decode("", STATUS_ID_KEYS).isInitial());
+    }
+
+    @Test
+    public void whenMalformed_thenReject() {
+        // Not Base64
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode("not*base64", STATUS_ID_KEYS));
+        // Pair without value separator
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode(tokenOf("status"), STATUS_ID_KEYS));
+        // Value not parseable by its key type
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode(tokenOf("status=placed&id=42"), STATUS_ID_KEYS));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode(tokenOf("status=lost&id=" + UUID.randomUUID()), STATUS_ID_KEYS));
+    }
+
+    @Test
+    public void whenUnexpectedKeys_thenReject() {
+        UUID id = UUID.randomUUID();
+
+        IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode(tokenOf("status=placed&id=" + id + "&name=x"), STATUS_ID_KEYS));
+        Assertions.assertTrue(ex.getMessage().contains("name"), ex.getMessage());
+
+        // Missing key, for example a token from another listing
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ContinuationToken.decode(tokenOf("id=" + id), STATUS_ID_KEYS));
+    }
+}
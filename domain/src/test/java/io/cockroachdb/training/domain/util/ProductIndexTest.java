@@ -0,0 +1,115 @@
+package io.cockroachdb.training.domain.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.training.domain.model.Product;
+
+@Tag("unit-test")
+public class ProductIndexTest {
+    private static Product newProduct(UUID id, int inventory) {
+        return Product.builder()
+                .withId(id)
+                .withInventory(inventory)
+                .build();
+    }
+
+    @Test
+    public void whenKeysCollide_thenKeepSeparateEntries() {
+        // Same XOR of the most and least significant bits hashes to the same slot
+        Product p1 = newProduct(new UUID(1, 2), 100);
+        Product p2 = newProduct(new UUID(3, 0), 100);
+        Product p3 = newProduct(new UUID(0, 3), 100);
+
+        ProductIndex index = ProductIndex.of(List.of(p1, p2, p3));
+        Assertions.assertEquals(3, index.size());
+
+        index.addDelta(p1.getId(), -1);
+        index.addDelta(p2.getId(), -2);
+        index.addDelta(p3.getId(), -3);
+
+        Assertions.assertEquals(3, index.applyDeltas());
+        Assertions.assertEquals(99, p1.getInventory());
+        Assertions.assertEquals(98, p2.getInventory());
+        Assertions.assertEquals(97, p3.getInventory());
+    }
+
+    @Test
+    public void whenGrowingPastLoadFactor_thenRetainProductsAndDeltas() {
+        ProductIndex index = new ProductIndex(1);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Product product = newProduct(UUID.randomUUID(), 1000);
+            products.add(product);
+            index.put(product);
+            // Deltas added before each rehash must carry over
+            index.addDelta(product.getId(), -(i % 10) - 1);
+        }
+
+        Assertions.assertEquals(1000, index.size());
+        Assertions.assertEquals(1000, index.applyDeltas());
+
+        for (int i = 0; i < products.size(); i++) {
+            Assertions.assertEquals(1000 - (i % 10) - 1, products.get(i).getInventory());
+        }
+    }
+
+    @Test
+    public void whenPuttingSameId_thenReplaceProduct() {
+        UUID id = UUID.randomUUID();
+        Product p1 = newProduct(id, 10);
+        Product p2 = newProduct(id, 20);
+
+        ProductIndex index = ProductIndex.of(List.of(p1, p2));
+        Assertions.assertEquals(1, index.size());
+
+        index.addDelta(id, 5);
+        index.applyDeltas();
+
+        Assertions.assertEquals(10, p1.getInventory());
+        Assertions.assertEquals(25, p2.getInventory());
+    }
+
+    @Test
+    public void whenKeyMissing_thenThrow() {
+        ProductIndex index = ProductIndex.of(List.of(newProduct(UUID.randomUUID(), 10)));
+
+        Assertions.assertThrows(NoSuchElementException.class,
+                () -> index.addDelta(UUID.randomUUID(), -1));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> index.addDelta(null, -1));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> index.put(newProduct(null, 10)));
+    }
+
+    @Test
+    public void whenApplyingDeltas_thenSumPerProductAndReset() {
+        Product p1 = newProduct(UUID.randomUUID(), 10);
+        Product p2 = newProduct(UUID.randomUUID(), 10);
+        Product p3 = newProduct(UUID.randomUUID(), 10);
+
+        ProductIndex index = ProductIndex.of(List.of(p1, p2, p3));
+
+        index.addDelta(p1.getId(), -1);
+        index.addDelta(p1.getId(), -2);
+        // Net zero change is skipped
+        index.addDelta(p2.getId(), -4);
+        index.addDelta(p2.getId(), 4);
+
+        Assertions.assertEquals(1, index.applyDeltas());
+        Assertions.assertEquals(7, p1.getInventory());
+        Assertions.assertEquals(10, p2.getInventory());
+        Assertions.assertEquals(10, p3.getInventory());
+
+        // Deltas are reset after being applied
+        Assertions.assertEquals(0, index.applyDeltas());
+        Assertions.assertEquals(7, p1.getInventory());
+    }
+}
@@ -0,0 +1,128 @@
+package io.cockroachdb.training.domain.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.EntityManager;
+
+@Tag("unit-test")
+public class StreamUtilsTest {
+    @Test
+    public void whenChunkingStream_thenPreserveOrderAndSizes() {
+        List<Chunk<Integer>> chunks = StreamUtils.chunks(IntStream.range(0, 25).boxed(), 10).toList();
+
+        Assertions.assertEquals(3, chunks.size());
+        Assertions.assertEquals(List.of(0L, 1L, 2L), chunks.stream().map(Chunk::getIndex).toList());
+        Assertions.assertEquals(List.of(10, 10, 5), chunks.stream().map(Chunk::size).toList());
+        Assertions.assertEquals(IntStream.range(0, 25).boxed().toList(),
+                chunks.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    public void whenProcessingChunksInParallel_thenConsumeSourceLazily() throws Exception {
+        final int chunkSize = 10;
+        final int parallelism = 2;
+
+        AtomicInteger pulled = new AtomicInteger();
+        Stream<Integer> source = Stream.iterate(0, i -> i < 10_000, i -> i + 1)
+                .peek(i -> pulled.incrementAndGet());
+
+        CountDownLatch started = new CountDownLatch(parallelism);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+
+        Thread caller = Thread.ofPlatform().start(() ->
+                StreamUtils.forEachChunk(source, chunkSize, parallelism, chunk -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    processed.add(chunk.getIndex());
+                }));
+
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Give the caller thread a chance to read ahead if it would
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        Assertions.assertEquals(parallelism * chunkSize, pulled.get(), "Source read ahead of workers");
+
+        release.countDown();
+        caller.join(TimeUnit.SECONDS.toMillis(10));
+
+        Assertions.assertEquals(10_000, pulled.get());
+        Assertions.assertEquals(1000, processed.size());
+    }
+
+    @Test
+    public void whenChunkFails_thenRethrowAndStopReading() {
+        AtomicInteger pulled = new AtomicInteger();
+        Stream<Integer> source = IntStream.range(0, 10_000).boxed()
+                .peek(i -> pulled.incrementAndGet());
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () ->
+                StreamUtils.forEachChunk(source, 10, 2, chunk -> {
+                    if (chunk.getIndex() == 3) {
+                        throw new IllegalStateException("Chunk 3");
+                    }
+                }));
+
+        Assertions.assertEquals("Chunk 3", e.getMessage());
+        Assertions.assertTrue(pulled.get() < 10_000);
+    }
+
+    @Test
+    public void whenClearingStream_thenClearBeforeReadingNextElement() {
+        List<String> events = new ArrayList<>();
+        EntityManager entityManager = entityManager(() -> events.add("clear"));
+
+        Stream<Integer> source = IntStream.range(0, 7).boxed()
+                .peek(i -> events.add("read " + i));
+
+        StreamUtils.clearing(source, entityManager, 3)
+                .forEach(i -> events.add("use " + i));
+
+        Assertions.assertEquals(List.of(
+                "read 0", "use 0", "read 1", "use 1", "read 2", "use 2",
+                "clear",
+                "read 3", "use 3", "read 4", "use 4", "read 5", "use 5",
+                "clear",
+                "read 6", "use 6"), events);
+    }
+
+    @Test
+    public void whenClearingParallelStream_thenReject() {
+        EntityManager entityManager = entityManager(() -> {
+        });
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                StreamUtils.clearing(IntStream.range(0, 10).boxed().parallel(), entityManager, 3));
+    }
+
+    private static EntityManager entityManager(Runnable onClear) {
+        return (EntityManager) Proxy.newProxyInstance(
+                StreamUtilsTest.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("clear")) {
+                        onClear.run();
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}